@@ -0,0 +1,160 @@
+package ru.rutmiit.benchmarks;
+
+import org.mockito.Mockito;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.rutmiit.models.enums.EducationLevel;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.repositories.UserRepository;
+import ru.rutmiit.services.CompanyDeletionService;
+import ru.rutmiit.services.CompanyServiceImpl;
+import ru.rutmiit.services.EmployeeServiceImpl;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+import ru.rutmiit.utils.cache.CacheNamespaces;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+import ru.rutmiit.utils.cache.NegativeLookupCache;
+import ru.rutmiit.utils.cache.RedisCircuitBreaker;
+import ru.rutmiit.utils.ids.UuidV7Generator;
+import ru.rutmiit.utils.mapping.CompanyMapper;
+import ru.rutmiit.utils.mapping.EmployeeMapper;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Контекст Spring для бенчмарков сервисов: JPA и репозитории приложения поверх H2
+ * в режиме совместимости с PostgreSQL, без Redis и веб-слоя.
+ * <p>
+ * Сервисы создаются настоящими (с транзакциями), а кэш и рассылки Redis заменены
+ * заглушками: измеряется путь промаха кэша — запрос к БД и построение DTO.
+ * Аннотации {@code @Cacheable} не действуют, потому что кэширование не включено.
+ */
+final class BenchmarkDatabase {
+
+    private static final String COMPANY_SQL = "INSERT INTO companies " +
+            "(id, name, town, description, budget, employee_count, total_salary, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EMPLOYEE_SQL = "INSERT INTO employees " +
+            "(id, first_name, last_name, full_name, education_level, job_title, birth_date, salary, " +
+            "company_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final double SALARY = 100_000;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Поднимает контекст на чистой базе и заполняет её: {@code companies} компаний
+     * «Компания N» и по {@code employeesPerCompany} сотрудников «Имя{N} Фамилия{M}» в каждой.
+     */
+    static ConfigurableApplicationContext start(int companies, int employeesPerCompany) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        // application.properties приложения не читается
+                        "spring.config.name", "benchmark",
+                        "spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "spring.jpa.hibernate.ddl-auto", "create",
+                        "spring.jpa.open-in-view", "false",
+                        "spring.main.banner-mode", "off",
+                        "logging.level.root", "WARN"))
+                .run();
+        seed(context.getBean(JdbcTemplate.class), companies, employeesPerCompany);
+        context.getBean(ExistenceFilters.class).rebuild();
+        return context;
+    }
+
+    static String companyName(int company) {
+        return "Компания " + company;
+    }
+
+    static String employeeFullName(int company, int employee) {
+        return "Имя" + company + " Фамилия" + employee;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int companies, int employeesPerCompany) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> companyRows = new ArrayList<>(companies);
+        List<Object[]> employeeRows = new ArrayList<>();
+        for (int c = 0; c < companies; c++) {
+            UUID companyId = UuidV7Generator.next();
+            companyRows.add(new Object[]{companyId, companyName(c), "Город " + c % 50,
+                    "Описание компании номер " + c, 1_000_000.0 + c,
+                    employeesPerCompany, SALARY * employeesPerCompany, now, now});
+            for (int e = 0; e < employeesPerCompany; e++) {
+                employeeRows.add(new Object[]{UuidV7Generator.next(), "Имя" + c, "Фамилия" + e,
+                        employeeFullName(c, e), EducationLevel.values()[e % EducationLevel.values().length].name(),
+                        "Должность " + e % 20, java.sql.Date.valueOf(LocalDate.of(1980 + e % 30, 1, 1)),
+                        SALARY, companyId, now, now});
+            }
+        }
+        jdbcTemplate.batchUpdate(COMPANY_SQL, companyRows);
+        for (int from = 0; from < employeeRows.size(); from += 10_000) {
+            jdbcTemplate.batchUpdate(EMPLOYEE_SQL, employeeRows.subList(from, Math.min(from + 10_000, employeeRows.size())));
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+            RedisAutoConfiguration.class,
+            RedisRepositoriesAutoConfiguration.class,
+            SecurityAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class})
+    @EntityScan("ru.rutmiit.models.entities")
+    @EnableJpaRepositories("ru.rutmiit.repositories")
+    @EnableJpaAuditing
+    @Import({CompanyMapper.class, EmployeeMapper.class, CompanyServiceImpl.class, EmployeeServiceImpl.class})
+    static class Config {
+
+        @Bean
+        ExistenceFilters existenceFilters(UserRepository userRepository, CompanyRepository companyRepository) {
+            RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(Mockito.mock(RedisConnectionFactory.class),
+                    5, Duration.ofMillis(50), Duration.ofSeconds(10));
+            return new ExistenceFilters(userRepository, companyRepository, Mockito.mock(StringRedisTemplate.class),
+                    circuitBreaker, "bench:bloom", 100_000, 0.01, Duration.ofHours(2));
+        }
+
+        @Bean
+        CacheInvalidator cacheInvalidator() {
+            return Mockito.mock(CacheInvalidator.class);
+        }
+
+        @Bean
+        NegativeLookupCache negativeLookupCache() {
+            return Mockito.mock(NegativeLookupCache.class);
+        }
+
+        @Bean
+        CacheNamespaces cacheNamespaces() {
+            return Mockito.mock(CacheNamespaces.class);
+        }
+
+        @Bean
+        CompanyDeletionService companyDeletionService() {
+            return Mockito.mock(CompanyDeletionService.class);
+        }
+    }
+}
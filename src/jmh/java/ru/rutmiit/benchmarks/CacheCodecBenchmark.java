@@ -0,0 +1,113 @@
+package ru.rutmiit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import ru.rutmiit.config.RedisConfig;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
+import ru.rutmiit.utils.cache.CachedPage;
+import ru.rutmiit.utils.cache.CompactCacheValueSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и декодирование значений кэша Redis: JSON с типами (app.cache.codec=json)
+ * против двоичного кодека (app.cache.codec=binary) на карточке компании, списке компаний
+ * и странице списка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheCodecBenchmark {
+
+    // Порог сжатия, как в application.properties
+    private static final int COMPRESSION_THRESHOLD = 1024;
+
+    @Param({"json", "binary"})
+    private String codec;
+
+    @Param({"1000"})
+    private int listSize;
+
+    private RedisSerializer<Object> serializer;
+    private ShowDetailedCompanyInfoDto details;
+    private List<ShowCompanyInfoDto> companies;
+    private CachedPage<ShowCompanyInfoDto> page;
+    private byte[] encodedDetails;
+    private byte[] encodedCompanies;
+    private byte[] encodedPage;
+
+    @Setup
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(RedisConfig.cacheObjectMapper());
+        serializer = "binary".equals(codec) ? new CompactCacheValueSerializer(json, COMPRESSION_THRESHOLD) : json;
+
+        details = new ShowDetailedCompanyInfoDto();
+        details.setName("Компания 1");
+        details.setTown("Москва");
+        details.setDescription("Разработка программного обеспечения для транспорта");
+        details.setBudget(12_500_000);
+        details.setEmployeeCount(340);
+        details.setTotalSalary(40_800_000);
+        details.setAverageSalary(120_000);
+
+        companies = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            companies.add(new ShowCompanyInfoDto("Компания " + i, "Москва", "Описание компании номер " + i));
+        }
+        page = new CachedPage<>(new ArrayList<>(companies.subList(0, Math.min(20, listSize))),
+                PageRequest.of(3, 20, Sort.by("name")), listSize);
+
+        encodedDetails = serializer.serialize(details);
+        encodedCompanies = serializer.serialize(companies);
+        encodedPage = serializer.serialize(page);
+    }
+
+    @Benchmark
+    public byte[] encodeDetails() {
+        return serializer.serialize(details);
+    }
+
+    @Benchmark
+    public Object decodeDetails() {
+        return serializer.deserialize(encodedDetails);
+    }
+
+    @Benchmark
+    public byte[] encodeCompanyList() {
+        return serializer.serialize(companies);
+    }
+
+    @Benchmark
+    public Object decodeCompanyList() {
+        return serializer.deserialize(encodedCompanies);
+    }
+
+    @Benchmark
+    public byte[] encodePage() {
+        return serializer.serialize(page);
+    }
+
+    @Benchmark
+    public Object decodePage() {
+        return serializer.deserialize(encodedPage);
+    }
+}
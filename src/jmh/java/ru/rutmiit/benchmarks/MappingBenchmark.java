@@ -0,0 +1,139 @@
+package ru.rutmiit.benchmarks;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedEmployeeInfoDto;
+import ru.rutmiit.models.entities.Company;
+import ru.rutmiit.models.entities.Employee;
+import ru.rutmiit.models.enums.EducationLevel;
+import ru.rutmiit.utils.mapping.CompanyMapper;
+import ru.rutmiit.utils.mapping.EmployeeMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ручные мапперы против ModelMapper: один объект и список из 10 000 строк,
+ * как при построении страницы компаний без проекции.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int LIST_SIZE = 10_000;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final CompanyMapper companyMapper = new CompanyMapper();
+    private final EmployeeMapper employeeMapper = new EmployeeMapper();
+
+    private Company company;
+    private Employee employee;
+    private AddEmployeeDto addEmployee;
+    private List<Company> companies;
+
+    @Setup
+    public void setUp() {
+        company = company(0);
+        employee = new Employee();
+        employee.setFirstName("Иван");
+        employee.setLastName("Петров");
+        employee.setJobTitle("Инженер");
+        employee.setEducationLevel(EducationLevel.Master);
+        employee.setBirthDate(LocalDate.of(1990, 5, 17));
+        employee.setSalary(120_000.0);
+        employee.setCompany(company);
+
+        addEmployee = new AddEmployeeDto();
+        addEmployee.setFirstName("Иван");
+        addEmployee.setLastName("Петров");
+        addEmployee.setJobTitle("Инженер");
+        addEmployee.setEducationLevel(EducationLevel.Master);
+        addEmployee.setBirthDate(LocalDate.of(1990, 5, 17));
+        addEmployee.setSalary(120_000.0);
+        addEmployee.setCompanyName(company.getName());
+
+        companies = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            companies.add(company(i));
+        }
+    }
+
+    private static Company company(int i) {
+        Company company = new Company();
+        company.setName("Компания " + i);
+        company.setTown("Москва");
+        company.setDescription("Описание компании номер " + i);
+        company.setBudget(1_000_000.0 + i);
+        return company;
+    }
+
+    @Benchmark
+    public ShowCompanyInfoDto companyInfoModelMapper() {
+        return modelMapper.map(company, ShowCompanyInfoDto.class);
+    }
+
+    @Benchmark
+    public ShowCompanyInfoDto companyInfoHandWritten() {
+        return companyMapper.toInfo(company);
+    }
+
+    @Benchmark
+    public ShowDetailedCompanyInfoDto companyDetailsModelMapper() {
+        return modelMapper.map(company, ShowDetailedCompanyInfoDto.class);
+    }
+
+    @Benchmark
+    public ShowDetailedCompanyInfoDto companyDetailsHandWritten() {
+        return companyMapper.toDetailedInfo(company);
+    }
+
+    @Benchmark
+    public ShowDetailedEmployeeInfoDto employeeDetailsModelMapper() {
+        return modelMapper.map(employee, ShowDetailedEmployeeInfoDto.class);
+    }
+
+    @Benchmark
+    public ShowDetailedEmployeeInfoDto employeeDetailsHandWritten() {
+        return employeeMapper.toDetailedInfo(employee);
+    }
+
+    @Benchmark
+    public Employee addEmployeeModelMapper() {
+        return modelMapper.map(addEmployee, Employee.class);
+    }
+
+    @Benchmark
+    public Employee addEmployeeHandWritten() {
+        return employeeMapper.toEntity(addEmployee);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ShowCompanyInfoDto> companyListModelMapper() {
+        return companies.stream().map(c -> modelMapper.map(c, ShowCompanyInfoDto.class)).toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ShowCompanyInfoDto> companyListHandWritten() {
+        return companies.stream().map(companyMapper::toInfo).toList();
+    }
+}
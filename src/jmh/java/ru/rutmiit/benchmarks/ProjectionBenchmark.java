@@ -0,0 +1,95 @@
+package ru.rutmiit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowEmployeeInfoDto;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.repositories.EmployeeRepository;
+import ru.rutmiit.utils.mapping.CompanyMapper;
+import ru.rutmiit.utils.mapping.EmployeeMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Загрузка сущностей с ручным маппингом против конструкторной проекции JPQL
+ * на таблицах {@code companies} и {@code employees} по 100 000 строк.
+ * <p>
+ * Оба варианта выполняются в транзакции только для чтения, как в сервисах.
+ * Кроме времени смотреть на {@code gc.alloc.rate.norm} (байты на операцию) из профилировщика GC,
+ * включённого в {@code jmh.args} по умолчанию: {@code -Djmh.args="Projection -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnly;
+    private CompanyRepository companyRepository;
+    private EmployeeRepository employeeRepository;
+    private CompanyMapper companyMapper;
+    private EmployeeMapper employeeMapper;
+
+    @Setup
+    public void setUp() {
+        // По одному сотруднику на компанию: обе таблицы получают по rows строк
+        context = BenchmarkDatabase.start(rows, 1);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        companyRepository = context.getBean(CompanyRepository.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        companyMapper = context.getBean(CompanyMapper.class);
+        employeeMapper = context.getBean(EmployeeMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ShowCompanyInfoDto> companiesEntityMapped() {
+        return readOnly.execute(status -> companyRepository.findAll().stream()
+                .map(companyMapper::toInfo)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ShowCompanyInfoDto> companiesProjection() {
+        return readOnly.execute(status -> companyRepository.findAllInfo());
+    }
+
+    @Benchmark
+    public List<ShowEmployeeInfoDto> employeesEntityMapped() {
+        return readOnly.execute(status -> employeeRepository.findAll().stream()
+                .map(employeeMapper::toInfo)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ShowEmployeeInfoDto> employeesProjection() {
+        return readOnly.execute(status -> employeeRepository.findAllInfo());
+    }
+}
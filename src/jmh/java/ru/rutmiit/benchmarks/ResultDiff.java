@@ -0,0 +1,72 @@
+package ru.rutmiit.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сравнение двух файлов результатов JMH ({@code -rf json}) — например, прошлого и текущего релиза.
+ * Для каждого бенчмарка с одинаковыми параметрами печатает обе оценки и изменение в процентах,
+ * а если прогон шёл с {@code -prof gc} — ещё и выделение памяти на операцию.
+ * <p>
+ * {@code mvn -Pjmh exec:exec@jmh-diff -Djmh.baseline=path/to/jmh-result-1.0.json}
+ */
+public final class ResultDiff {
+
+    private static final String ALLOCATION_METRIC = "·gc.alloc.rate.norm";
+
+    private ResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Использование: ResultDiff <базовый.json> <текущий.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %-10s %9s%n", "Бенчмарк", "Было", "Стало", "Единица", "Δ, %");
+        current.forEach((key, result) -> {
+            JsonNode before = baseline.get(key);
+            print(key, result.path("primaryMetric"), before != null ? before.path("primaryMetric") : null);
+            JsonNode allocation = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            if (!allocation.isMissingNode()) {
+                JsonNode previous = before != null ? before.path("secondaryMetrics").path(ALLOCATION_METRIC) : null;
+                print(key + " " + ALLOCATION_METRIC, allocation,
+                        previous != null && !previous.isMissingNode() ? previous : null);
+            }
+        });
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14s %14s %-10s %9s%n", key, "", "—", "", "removed"));
+    }
+
+    private static void print(String key, JsonNode metric, JsonNode before) {
+        double score = metric.path("score").asDouble();
+        if (before == null) {
+            System.out.printf("%-90s %14s %14.3f %-10s %9s%n", key, "—", score, metric.path("scoreUnit").asText(), "new");
+            return;
+        }
+        double previous = before.path("score").asDouble();
+        double change = previous == 0 ? 0 : (score - previous) / previous * 100;
+        System.out.printf("%-90s %14.3f %14.3f %-10s %+9.1f%n", key, previous, score,
+                metric.path("scoreUnit").asText(), change);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : JsonMapper.builder().build().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.rutmiit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.rutmiit.dto.CompanyKeysetPageDto;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedEmployeeInfoDto;
+import ru.rutmiit.dto.ShowEmployeeInfoDto;
+import ru.rutmiit.services.CompanyService;
+import ru.rutmiit.services.EmployeeService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы {@link CompanyService} и {@link EmployeeService} на встроенной базе, путь промаха кэша.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000"})
+    private int companies;
+
+    @Param({"20"})
+    private int employeesPerCompany;
+
+    private ConfigurableApplicationContext context;
+    private CompanyService companyService;
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start(companies, employeesPerCompany);
+        companyService = context.getBean(CompanyService.class);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ShowCompanyInfoDto> allCompanies() {
+        return companyService.allCompanies();
+    }
+
+    @Benchmark
+    public Page<ShowCompanyInfoDto> companiesPage() {
+        int page = ThreadLocalRandom.current().nextInt(companies / 20);
+        return companyService.allCompaniesPaginated(PageRequest.of(page, 20, Sort.by("name")));
+    }
+
+    @Benchmark
+    public CompanyKeysetPageDto companiesFirstKeysetPage() {
+        return companyService.scrollCompanies(null, 20, "name");
+    }
+
+    @Benchmark
+    public ShowDetailedCompanyInfoDto companyDetails() {
+        return companyService.companyDetails(BenchmarkDatabase.companyName(randomCompany()));
+    }
+
+    @Benchmark
+    public List<ShowEmployeeInfoDto> allEmployees() {
+        return employeeService.allEmployees();
+    }
+
+    @Benchmark
+    public ShowDetailedEmployeeInfoDto employeeInfo() {
+        int company = randomCompany();
+        int employee = ThreadLocalRandom.current().nextInt(employeesPerCompany);
+        return employeeService.employeeInfo(BenchmarkDatabase.employeeFullName(company, employee));
+    }
+
+    private int randomCompany() {
+        return ThreadLocalRandom.current().nextInt(companies);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.rutmiit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.repositories.UserRepository;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+import ru.rutmiit.utils.validation.UniqueCompanyNameValidator;
+import ru.rutmiit.utils.validation.UniqueUsernameValidator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверки уникальности при регистрации и добавлении компании: свободное значение
+ * отсекается фильтром Блума без запроса, занятое проверяется запросом в БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private static final int COMPANIES = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private UniqueCompanyNameValidator companyNameValidator;
+    private UniqueUsernameValidator usernameValidator;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start(COMPANIES, 0);
+        ExistenceFilters existenceFilters = context.getBean(ExistenceFilters.class);
+        companyNameValidator = new UniqueCompanyNameValidator(context.getBean(CompanyRepository.class), existenceFilters);
+        usernameValidator = new UniqueUsernameValidator(context.getBean(UserRepository.class), existenceFilters);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean freeCompanyName() {
+        return companyNameValidator.isValid("Новая компания " + ThreadLocalRandom.current().nextInt(), null);
+    }
+
+    @Benchmark
+    public boolean takenCompanyName() {
+        return companyNameValidator.isValid(
+                BenchmarkDatabase.companyName(ThreadLocalRandom.current().nextInt(COMPANIES)), null);
+    }
+
+    @Benchmark
+    public boolean freeUsername() {
+        return usernameValidator.isValid("user" + ThreadLocalRandom.current().nextInt(), null);
+    }
+}
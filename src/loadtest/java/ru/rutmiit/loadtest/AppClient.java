@@ -0,0 +1,108 @@
+package ru.rutmiit.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP-клиент приложения с одной сессией: вход через форму и CSRF-токен для POST-запросов.
+ * Редиректы не выполняются, чтобы ответ формы можно было проверить по {@code Location}.
+ */
+final class AppClient {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient http;
+    private final URI base;
+    private volatile String csrfToken;
+
+    private AppClient(URI base) {
+        this.base = base;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    static AppClient login(URI base, String username, String password) throws IOException, InterruptedException {
+        AppClient client = new AppClient(base);
+        client.refreshCsrf("/users/login");
+
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("username", username);
+        form.put("password", password);
+        HttpResponse<Void> response = client.http.send(client.postForm("/users/login", form),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("login")) {
+            throw new IllegalStateException("Не удалось войти как " + username + ": " + response.statusCode() + " " + location);
+        }
+        // После входа Spring Security выдаёт новый токен
+        client.refreshCsrf("/employees/add");
+        return client;
+    }
+
+    HttpClient http() {
+        return http;
+    }
+
+    HttpRequest get(String... pathSegments) {
+        return HttpRequest.newBuilder(uri(pathSegments)).timeout(TIMEOUT).GET().build();
+    }
+
+    HttpRequest postForm(String path, Map<String, String> form) {
+        Map<String, String> body = new LinkedHashMap<>(form);
+        body.put("_csrf", csrfToken);
+        String encoded = body.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(encoded))
+                .build();
+    }
+
+    /**
+     * Путь из сегментов; сегменты с пробелами и кириллицей кодируются.
+     */
+    String path(String... segments) {
+        StringBuilder path = new StringBuilder();
+        for (String segment : segments) {
+            path.append('/').append(encode(segment).replace("+", "%20"));
+        }
+        return path.toString();
+    }
+
+    private URI uri(String... pathSegments) {
+        return base.resolve(path(pathSegments));
+    }
+
+    private void refreshCsrf(String page) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(base.resolve(page)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = CSRF.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("На странице " + page + " нет CSRF-токена (" + response.statusCode() + ")");
+        }
+        csrfToken = matcher.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.rutmiit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import ru.rutmiit.models.enums.EducationLevel;
+import ru.rutmiit.utils.ids.UuidV7Generator;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Заполнение базы через COPY: {@code companies} компаний и по {@code employeesPerCompany}
+ * сотрудников в каждой. Счётчики компаний заполняются сразу согласованными.
+ * <p>
+ * Имена детерминированы ({@link #companyName}, {@link #employeeFullName}), чтобы сценарии
+ * могли выбирать существующие записи без запросов к базе.
+ */
+@Slf4j
+final class DataSeeder {
+
+    private static final String COMPANIES_COPY = "COPY companies " +
+            "(id, name, town, description, budget, employee_count, total_salary, created_at, updated_at) " +
+            "FROM STDIN (FORMAT csv)";
+
+    private static final String EMPLOYEES_COPY = "COPY employees " +
+            "(id, first_name, last_name, full_name, education_level, job_title, birth_date, salary, " +
+            "company_id, created_at, updated_at) FROM STDIN (FORMAT csv)";
+
+    private static final int ROWS_PER_COPY = 50_000;
+
+    private static final double SALARY = 100_000;
+
+    private DataSeeder() {
+    }
+
+    // Названия компаний в форме ограничены 10 символами
+    static String companyName(int company) {
+        return "C" + company;
+    }
+
+    static String employeeFullName(int company, int employee) {
+        return "Имя" + company + " Фамилия" + employee;
+    }
+
+    static void seed(String jdbcUrl, int companies, int employeesPerCompany) throws SQLException {
+        long started = System.currentTimeMillis();
+        String now = LocalDateTime.now().toString();
+        UUID[] companyIds = new UUID[companies];
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+
+            StringBuilder rows = new StringBuilder();
+            for (int c = 0; c < companies; c++) {
+                companyIds[c] = UuidV7Generator.next();
+                rows.append(companyIds[c]).append(',').append(companyName(c)).append(",Город").append(c % 100)
+                        .append(",Описание компании номер ").append(c).append(',').append(1_000_000 + c)
+                        .append(',').append(employeesPerCompany).append(',').append(SALARY * employeesPerCompany)
+                        .append(',').append(now).append(',').append(now).append('\n');
+                if ((c + 1) % ROWS_PER_COPY == 0) {
+                    copy(copy, COMPANIES_COPY, rows);
+                }
+            }
+            copy(copy, COMPANIES_COPY, rows);
+
+            EducationLevel[] levels = EducationLevel.values();
+            long total = 0;
+            for (int c = 0; c < companies; c++) {
+                for (int e = 0; e < employeesPerCompany; e++) {
+                    rows.append(UuidV7Generator.next()).append(",Имя").append(c).append(",Фамилия").append(e)
+                            .append(',').append(employeeFullName(c, e)).append(',').append(levels[e % levels.length])
+                            .append(",Должность ").append(e % 50).append(',').append(1970 + e % 35).append("-01-01,")
+                            .append(SALARY).append(',').append(companyIds[c])
+                            .append(',').append(now).append(',').append(now).append('\n');
+                    if (++total % ROWS_PER_COPY == 0) {
+                        copy(copy, EMPLOYEES_COPY, rows);
+                    }
+                }
+            }
+            copy(copy, EMPLOYEES_COPY, rows);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE companies");
+                statement.execute("ANALYZE employees");
+            }
+            log.info("База заполнена за {} с: компаний {}, сотрудников {}",
+                    (System.currentTimeMillis() - started) / 1000, companies, total);
+        }
+    }
+
+    private static void copy(CopyManager copy, String sql, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            copy.copyIn(sql, new StringReader(rows.toString()));
+        } catch (IOException ex) {
+            throw new SQLException(ex);
+        }
+        rows.setLength(0);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.rutmiit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.rutmiit.CompanyApplication;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+
+import java.io.File;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Нагрузочный прогон на одной машине.
+ * <p>
+ * Поднимает локальные PostgreSQL и Redis, запускает приложение в этом же процессе,
+ * заполняет базу ({@code --companies}, {@code --employees}), сбрасывает кэши и подаёт
+ * запросы с постоянной частотой. Печатает по каждому сценарию пропускную способность,
+ * p50/p99/p99.9 и пишет то же в JSON ({@code --result}).
+ * <p>
+ * {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--companies=10000 --employees=1000000 --duration=PT5M"}
+ * <p>
+ * Генератор нагрузки делит процессор с приложением; для сравнения между версиями это
+ * допустимо, пока параметры прогона и машина одни и те же.
+ */
+@Slf4j
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        // Перезапуск devtools подменил бы загрузчик классов уже запущенного контекста
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (LocalInfrastructure infrastructure = LocalInfrastructure.start();
+             ConfigurableApplicationContext application = startApplication(infrastructure)) {
+            DataSeeder.seed(infrastructure.jdbcUrl(), options.companies(), options.employeesPerCompany());
+            resetCaches(application);
+
+            String port = application.getEnvironment().getProperty("local.server.port");
+            AppClient client = AppClient.login(URI.create("http://localhost:" + port), options.username(), options.password());
+            List<Scenario> scenarios = Scenarios.create(client, options);
+
+            List<ScenarioResult> results = new OpenLoopDriver(client.http(), options.maxInFlight())
+                    .run(scenarios, options.warmup(), options.duration());
+
+            LoadTestReport.print(results, System.out);
+            File resultFile = new File(options.resultFile());
+            LoadTestReport.write(results, options, resultFile);
+            log.warn("Результаты записаны в {}", resultFile.getAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LocalInfrastructure infrastructure) {
+        // Аргументы командной строки перекрывают application.properties
+        return new SpringApplicationBuilder(CompanyApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + infrastructure.jdbcUrl() + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=" + infrastructure.redisPort(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.rutmiit=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--app.cache.warmup.enabled=false");
+    }
+
+    /**
+     * Кэши и фильтры Блума построены при запуске по пустой базе — после заполнения их нужно сбросить.
+     */
+    private static void resetCaches(ConfigurableApplicationContext application) {
+        application.getBean(StringRedisTemplate.class).execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        CacheManager cacheManager = application.getBean(CacheManager.class);
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        application.getBean(ExistenceFilters.class).rebuild();
+    }
+}
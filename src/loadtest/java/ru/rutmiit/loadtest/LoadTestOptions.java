@@ -0,0 +1,65 @@
+package ru.rutmiit.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры прогона из аргументов вида {@code --имя=значение}.
+ * Частоты запросов задаются в запросах в секунду на каждый сценарий: {@code --rate.company-details=200};
+ * нулевая частота отключает сценарий.
+ */
+record LoadTestOptions(int companies,
+                       int employeesPerCompany,
+                       Duration warmup,
+                       Duration duration,
+                       int maxInFlight,
+                       String username,
+                       String password,
+                       Map<String, Double> rates,
+                       String resultFile) {
+
+    private static final Map<String, Double> DEFAULT_RATES = Map.of(
+            Scenarios.COMPANIES_ALL, 20.0,
+            Scenarios.COMPANY_DETAILS, 200.0,
+            Scenarios.EMPLOYEES_ALL, 0.2,
+            Scenarios.EMPLOYEE_ADD, 10.0,
+            Scenarios.EMPLOYEE_TRANSFER, 10.0);
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String scenario : Scenarios.ALL) {
+            String rate = values.remove("rate." + scenario);
+            rates.put(scenario, rate != null ? Double.parseDouble(rate) : DEFAULT_RATES.get(scenario));
+        }
+        int companies = Integer.parseInt(values.getOrDefault("companies", "10000"));
+        int employees = Integer.parseInt(values.getOrDefault("employees", "1000000"));
+        LoadTestOptions options = new LoadTestOptions(
+                companies,
+                Math.max(1, employees / Math.max(1, companies)),
+                Duration.parse(values.getOrDefault("warmup", "PT30S")),
+                Duration.parse(values.getOrDefault("duration", "PT2M")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                values.getOrDefault("username", "admin"),
+                values.getOrDefault("password", "topsecret"),
+                rates,
+                values.getOrDefault("result", "target/loadtest-result.json"));
+
+        values.keySet().removeAll(Set.of("companies", "employees", "warmup", "duration",
+                "max-in-flight", "username", "password", "result"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные параметры: " + values.keySet());
+        }
+        return options;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.rutmiit.loadtest;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Таблица результатов в консоль и JSON-файл для сравнения прогонов.
+ */
+final class LoadTestReport {
+
+    private LoadTestReport() {
+    }
+
+    static void print(List<ScenarioResult> results, PrintStream out) {
+        out.printf("%-20s %8s %8s %8s %7s %7s %10s %10s %10s %10s%n",
+                "Сценарий", "цель/с", "факт/с", "ответов", "ошибок", "сброс", "p50, мс", "p99, мс", "p99.9, мс", "max, мс");
+        for (ScenarioResult r : results) {
+            out.printf("%-20s %8.1f %8.1f %8d %7d %7d %10.1f %10.1f %10.1f %10.1f%n",
+                    r.name(), r.targetRate(), r.throughput(), r.completed(), r.errors(), r.dropped(),
+                    r.p50(), r.p99(), r.p999(), r.max());
+        }
+    }
+
+    static void write(List<ScenarioResult> results, LoadTestOptions options, File file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("companies", options.companies());
+        report.put("employeesPerCompany", options.employeesPerCompany());
+        report.put("warmup", options.warmup().toString());
+        report.put("duration", options.duration().toString());
+        report.put("scenarios", results);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build().writeValue(file, report);
+    }
+}
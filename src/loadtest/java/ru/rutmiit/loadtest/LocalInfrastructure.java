@@ -0,0 +1,68 @@
+package ru.rutmiit.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * Локальные PostgreSQL и Redis для прогона: настоящие серверы из бинарников, которые
+ * поставляются в зависимостях профиля, с данными во временных каталогах.
+ * Docker и внешние сервисы не нужны.
+ */
+final class LocalInfrastructure implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final RedisServer redis;
+    private final int redisPort;
+
+    private LocalInfrastructure(EmbeddedPostgres postgres, RedisServer redis, int redisPort) {
+        this.postgres = postgres;
+        this.redis = redis;
+        this.redisPort = redisPort;
+    }
+
+    static LocalInfrastructure start() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                // Для нагрузки важнее скорость, чем надёжность записи на диск
+                .setServerConfig("fsync", "off")
+                .setServerConfig("synchronous_commit", "off")
+                .setServerConfig("full_page_writes", "off")
+                .setServerConfig("max_connections", "200")
+                .setServerConfig("shared_buffers", "512MB")
+                .start();
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+        try {
+            redis.start();
+        } catch (IOException | RuntimeException ex) {
+            postgres.close();
+            throw ex;
+        }
+        return new LocalInfrastructure(postgres, redis, redisPort);
+    }
+
+    String jdbcUrl() {
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    int redisPort() {
+        return redisPort;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            redis.stop();
+        } finally {
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.rutmiit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с открытой моделью: запросы каждого сценария отправляются по расписанию
+ * с постоянной частотой, не дожидаясь ответов на предыдущие. Медленный сервер не снижает
+ * частоту, а задержка меряется от запланированного момента — так очередь не прячется
+ * (coordinated omission).
+ */
+@Slf4j
+final class OpenLoopDriver {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient http;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenLoopDriver(HttpClient http, int maxInFlight) {
+        this.http = http;
+        this.maxInFlight = maxInFlight;
+    }
+
+    List<ScenarioResult> run(List<Scenario> scenarios, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Stats> stats = new ArrayList<>();
+        List<Thread> generators = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            Stats scenarioStats = new Stats(scenario);
+            stats.add(scenarioStats);
+            Thread generator = new Thread(() -> generate(scenarioStats, start, measureFrom, end), "load-" + scenario.name());
+            generator.setDaemon(true);
+            generators.add(generator);
+        }
+        log.warn("Прогон: разогрев {}, измерение {}, сценарии {}", warmup, duration,
+                scenarios.stream().map(s -> s.name() + "@" + s.rate() + "/s").toList());
+        generators.forEach(Thread::start);
+        for (Thread generator : generators) {
+            generator.join();
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        if (inFlight.get() > 0) {
+            log.warn("Не дождались ответов на {} запросов", inFlight.get());
+        }
+        return stats.stream().map(s -> s.result(duration)).toList();
+    }
+
+    private void generate(Stats stats, long start, long measureFrom, long end) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / stats.scenario.rate());
+        for (long n = 0; ; n++) {
+            long intended = start + n * interval;
+            if (intended >= end) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    stats.dropped.increment();
+                }
+                continue;
+            }
+            HttpRequest request;
+            try {
+                request = stats.scenario.request().get();
+            } catch (RuntimeException ex) {
+                if (measured) {
+                    stats.errors.increment();
+                }
+                continue;
+            }
+            if (measured) {
+                stats.sent.increment();
+            }
+            inFlight.incrementAndGet();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                inFlight.decrementAndGet();
+                if (!measured) {
+                    return;
+                }
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                stats.latency.recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+                stats.completed.increment();
+                if (failure != null || !stats.scenario.success().test(response)) {
+                    stats.errors.increment();
+                }
+            });
+        }
+    }
+
+    private static final class Stats {
+        private final Scenario scenario;
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        private Stats(Scenario scenario) {
+            this.scenario = scenario;
+        }
+
+        private ScenarioResult result(Duration duration) {
+            double seconds = duration.toMillis() / 1000.0;
+            return new ScenarioResult(scenario.name(), scenario.rate(),
+                    sent.sum(), completed.sum(), errors.sum(), dropped.sum(),
+                    completed.sum() / seconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
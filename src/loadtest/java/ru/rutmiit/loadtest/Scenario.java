@@ -0,0 +1,16 @@
+package ru.rutmiit.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Сценарий нагрузки: запросы одного вида с постоянной частотой.
+ *
+ * @param rate    запросов в секунду
+ * @param request следующий запрос; вызывается из потока-генератора сценария
+ * @param success успешен ли ответ (для форм — куда ведёт редирект)
+ */
+record Scenario(String name, double rate, Supplier<HttpRequest> request, Predicate<HttpResponse<?>> success) {
+}
@@ -0,0 +1,20 @@
+package ru.rutmiit.loadtest;
+
+/**
+ * Итог сценария за период измерения. Задержки в миллисекундах считаются от запланированного
+ * момента отправки, поэтому очередь на стороне генератора тоже попадает в результат.
+ *
+ * @param dropped запросы, не отправленные из-за предела одновременных запросов
+ */
+record ScenarioResult(String name,
+                      double targetRate,
+                      long sent,
+                      long completed,
+                      long errors,
+                      long dropped,
+                      double throughput,
+                      double p50,
+                      double p99,
+                      double p999,
+                      double max) {
+}
@@ -0,0 +1,91 @@
+package ru.rutmiit.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Сценарии прогона: списки и карточки компаний, список сотрудников, добавление и перевод сотрудника.
+ * Карточки и переводы выбирают случайные записи из заполненных {@link DataSeeder}.
+ */
+final class Scenarios {
+
+    static final String COMPANIES_ALL = "companies-all";
+    static final String COMPANY_DETAILS = "company-details";
+    static final String EMPLOYEES_ALL = "employees-all";
+    static final String EMPLOYEE_ADD = "employee-add";
+    static final String EMPLOYEE_TRANSFER = "employee-transfer";
+
+    static final List<String> ALL = List.of(COMPANIES_ALL, COMPANY_DETAILS, EMPLOYEES_ALL, EMPLOYEE_ADD, EMPLOYEE_TRANSFER);
+
+    private Scenarios() {
+    }
+
+    static List<Scenario> create(AppClient client, LoadTestOptions options) {
+        int companies = options.companies();
+        int employees = options.employeesPerCompany();
+        AtomicLong added = new AtomicLong();
+
+        List<Scenario> scenarios = new ArrayList<>();
+        add(scenarios, options, COMPANIES_ALL,
+                () -> client.get("companies", "all"),
+                Scenarios::ok);
+        add(scenarios, options, COMPANY_DETAILS,
+                () -> client.get("companies", "company-details", DataSeeder.companyName(random(companies))),
+                Scenarios::ok);
+        add(scenarios, options, EMPLOYEES_ALL,
+                () -> client.get("employees", "all"),
+                Scenarios::ok);
+        add(scenarios, options, EMPLOYEE_ADD, () -> {
+            long n = added.incrementAndGet();
+            Map<String, String> form = new LinkedHashMap<>();
+            form.put("firstName", "Нагрузка" + n);
+            form.put("lastName", "Тестовая");
+            form.put("educationLevel", "Bachelor");
+            form.put("companyName", DataSeeder.companyName(random(companies)));
+            form.put("jobTitle", "Инженер");
+            form.put("birthDate", "1990-01-01");
+            form.put("salary", "90000");
+            return client.postForm("/employees/add", form);
+        }, response -> redirectsTo(response, "/"));
+        add(scenarios, options, EMPLOYEE_TRANSFER, () -> {
+            String employee = DataSeeder.employeeFullName(random(companies), random(employees));
+            Map<String, String> form = Map.of("newCompanyName", DataSeeder.companyName(random(companies)));
+            return client.postForm(client.path("employees", "employee-transfer", employee), form);
+        }, response -> response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").contains("/employees/employee-details/"));
+        return scenarios;
+    }
+
+    private static void add(List<Scenario> scenarios, LoadTestOptions options, String name,
+                            Supplier<HttpRequest> request,
+                            Predicate<HttpResponse<?>> success) {
+        double rate = options.rates().get(name);
+        if (rate > 0) {
+            scenarios.add(new Scenario(name, rate, request, success));
+        }
+    }
+
+    private static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() == 200;
+    }
+
+    private static boolean redirectsTo(HttpResponse<?> response, String path) {
+        if (response.statusCode() != 302) {
+            return false;
+        }
+        String location = response.headers().firstValue("Location").orElse("");
+        return location.equals(path) || location.endsWith(":" + response.uri().getPort() + path);
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+}
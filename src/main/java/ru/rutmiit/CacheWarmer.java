@@ -0,0 +1,139 @@
+package ru.rutmiit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.rutmiit.models.exceptions.CompanyNotFoundException;
+import ru.rutmiit.services.CompanyService;
+import ru.rutmiit.utils.cache.HotKeyTracker;
+import ru.rutmiit.utils.datasource.PrimaryReads;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Прогрев кэша при запуске и упреждающее обновление популярных ключей.
+ * <p>
+ * Пока прогрев не завершён, индикатор здоровья {@code cacheWarmer} возвращает
+ * OUT_OF_SERVICE, и узел не попадает в балансировку с холодным кэшем.
+ */
+@Slf4j
+@Component
+public class CacheWarmer implements CommandLineRunner, HealthIndicator {
+
+    private static final String REFRESH_LOCK = "cache:warmup:refresh-lock";
+
+    private final CompanyService companyService;
+    private final HotKeyTracker hotKeyTracker;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final int pages;
+    private final int pageSize;
+    private final int hotCompanies;
+    private final Duration refreshInterval;
+    private volatile boolean warmedUp;
+
+    public CacheWarmer(CompanyService companyService,
+                       HotKeyTracker hotKeyTracker,
+                       StringRedisTemplate redisTemplate,
+                       @Value("${app.cache.warmup.enabled}") boolean enabled,
+                       @Value("${app.cache.warmup.pages}") int pages,
+                       @Value("${app.cache.warmup.page-size}") int pageSize,
+                       @Value("${app.cache.warmup.hot-companies}") int hotCompanies,
+                       @Value("${app.cache.warmup.refresh-interval}") Duration refreshInterval) {
+        this.companyService = companyService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.pages = pages;
+        this.pageSize = pageSize;
+        this.hotCompanies = hotCompanies;
+        this.refreshInterval = refreshInterval;
+        log.info("CacheWarmer инициализирован");
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            warmedUp = true;
+            return;
+        }
+        long started = System.currentTimeMillis();
+        log.info("Прогрев кэша...");
+        try {
+            companyService.allCompanies();
+            String cursor = null;
+            for (int page = 0; page < pages; page++) {
+                cursor = companyService.scrollCompanies(cursor, pageSize, "name").getNextCursor();
+                if (cursor == null) {
+                    break;
+                }
+            }
+            companyService.companyCount();
+            List<String> hot = hotKeyTracker.topKeys("company", hotCompanies);
+            for (String companyName : hot) {
+                warmCompany(companyName);
+            }
+            log.info("Прогрев кэша завершён за {} мс, популярных компаний: {}",
+                    System.currentTimeMillis() - started, hot.size());
+        } catch (RuntimeException ex) {
+            log.warn("Прогрев кэша прерван: {}", ex.getMessage());
+        } finally {
+            warmedUp = true;
+        }
+    }
+
+    /**
+     * Перезаписывает популярные ключи до истечения их TTL.
+     * Между узлами обновление разыгрывается через короткую блокировку в Redis.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.warmup.refresh-interval}",
+               initialDelayString = "${app.cache.warmup.refresh-interval}")
+    public void refreshHotKeys() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(REFRESH_LOCK, "1", refreshInterval.dividedBy(2));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+            List<String> hot = hotKeyTracker.topKeys("company", hotCompanies);
+            // @CachePut пишет результат метода в кэш — читаем с основной БД, как и при промахе
+            PrimaryReads.run(() -> {
+                companyService.refreshAllCompanies();
+                hot.forEach(this::refreshCompany);
+            });
+            log.debug("Упреждающее обновление кэша: {} популярных компаний", hot.size());
+        } catch (RuntimeException ex) {
+            log.warn("Упреждающее обновление кэша не выполнено: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public Health health() {
+        return warmedUp ? Health.up().build() : Health.outOfService().withDetail("cache", "warming up").build();
+    }
+
+    private void warmCompany(String companyName) {
+        try {
+            companyService.companyDetails(companyName);
+        } catch (CompanyNotFoundException ex) {
+            log.debug("Популярная компания больше не существует: {}", companyName);
+        }
+    }
+
+    private void refreshCompany(String companyName) {
+        try {
+            companyService.refreshCompanyDetails(companyName);
+        } catch (CompanyNotFoundException ex) {
+            log.debug("Популярная компания больше не существует: {}", companyName);
+        }
+    }
+}
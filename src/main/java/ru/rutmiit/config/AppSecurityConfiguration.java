@@ -38,9 +38,10 @@ public class AppSecurityConfiguration {
                         .requestMatchers("/", "/users/login", "/users/register", "/users/login-error").permitAll()
                         .requestMatchers("/actuator/**").permitAll() // Для демо; в production настроить безопасность
                         .requestMatchers("/users/profile").authenticated()
-                        .requestMatchers("/employees/add", "/employees/employee-delete/*")
+                        .requestMatchers("/employees/add", "/employees/import", "/employees/export", "/employees/transfer",
+                                "/employees/employee-delete/*")
                             .hasAnyRole(UserRoles.MODERATOR.name(), UserRoles.ADMIN.name())
-                        .requestMatchers("/companies/add", "/companies/company-delete/*")
+                        .requestMatchers("/companies/add", "/companies/company-delete/*", "/companies/bulk-delete")
                             .hasRole(UserRoles.ADMIN.name())
                         .anyRequest().authenticated()
                 )
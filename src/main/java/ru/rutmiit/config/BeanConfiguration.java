@@ -1,18 +1,40 @@
 package ru.rutmiit.config;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @EnableCaching
 @EnableJpaAuditing
+@EnableScheduling
 public class BeanConfiguration {
 
+    public static final String HEALTH_CHECK_SCHEDULER = "healthCheckScheduler";
+
+    /**
+     * Планировщик фоновых задач по умолчанию (сверка счётчиков, перестройка фильтров,
+     * обновление кэша); размер пула — {@code spring.task.scheduling.pool.size}.
+     * Объявлен явно: при собственном {@link #healthCheckScheduler()} Spring Boot свой не создаёт.
+     */
     @Bean
-    public ModelMapper mapper() {
-        return new ModelMapper();
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Отдельный планировщик для проверок Redis и реплик: долгие фоновые задачи
+     * не задерживают восстановление автомата и возврат реплики в маршрутизацию.
+     */
+    @Bean(HEALTH_CHECK_SCHEDULER)
+    public ThreadPoolTaskScheduler healthCheckScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("health-check-");
+        return scheduler;
     }
 }
@@ -0,0 +1,81 @@
+package ru.rutmiit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.rutmiit.utils.datasource.ReadYourWritesTracker;
+import ru.rutmiit.utils.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Источники данных: основная БД и необязательные реплики для read-only транзакций.
+ * Без {@code app.datasource.replicas.urls} всё идёт на основную БД.
+ */
+@Slf4j
+@Configuration
+public class DataSourceConfig {
+
+    // Быстрый отказ реплики: после него запрос уходит на основную БД
+    private static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+
+    @Value("${app.datasource.replicas.urls}")
+    private String[] replicaUrls;
+
+    @Value("${app.datasource.replicas.max-lag}")
+    private Duration maxLag;
+
+    @Value("${app.datasource.read-your-writes.window}")
+    private Duration readYourWritesWindow;
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(readYourWritesWindow);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties properties,
+                                                      ReadYourWritesTracker readYourWritesTracker,
+                                                      MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(poolMetrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            replica.setJdbcUrl(url.trim());
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+            // Недоступная при старте реплика не мешает запуску, её подхватит проверка
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(poolMetrics);
+            replicas.add(replica);
+        }
+        log.info("Источники данных: основная БД и реплик для чтения: {}", replicas.size());
+
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
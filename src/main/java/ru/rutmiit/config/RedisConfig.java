@@ -4,23 +4,47 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import ru.rutmiit.utils.cache.CacheNamespaces;
+import ru.rutmiit.utils.cache.CacheStatistics;
+import ru.rutmiit.utils.cache.CompactCacheValueSerializer;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+import ru.rutmiit.utils.cache.HotKeyTracker;
+import ru.rutmiit.utils.cache.LoadedEntryTtl;
+import ru.rutmiit.utils.cache.MeasuringRedisCacheWriter;
+import ru.rutmiit.utils.cache.NegativeLookupCache;
+import ru.rutmiit.utils.cache.RedisCircuitBreaker;
+import ru.rutmiit.utils.cache.TwoLevelCacheManager;
 
 import java.time.Duration;
 
 @Configuration
 @EnableCaching
-public class RedisConfig {
+public class RedisConfig implements CachingConfigurer {
 
     @Value("${spring.data.redis.host}")
     private String redisHost;
@@ -28,15 +52,58 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int redisPort;
 
+    @Value("${app.cache.invalidation-channel}")
+    private String invalidationChannel;
+
+    @Value("${app.cache.namespace-channel}")
+    private String namespaceChannel;
+
+    @Value("${app.cache.local.max-size}")
+    private long localMaxSize;
+
+    @Value("${app.cache.local.ttl}")
+    private Duration localTtl;
+
+    @Value("${app.cache.local.stale-grace}")
+    private Duration staleGrace;
+
+    @Value("${app.cache.codec}")
+    private String codec;
+
+    @Value("${app.cache.codec.compression-threshold}")
+    private int compressionThreshold;
+
+    @Value("${app.cache.redis.timeout}")
+    private Duration redisTimeout;
+
+    @Value("${app.cache.loaded-ttl}")
+    private Duration loadedTtl;
+
     @Bean
     public LettuceConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(redisHost, redisPort);
-        return new LettuceConnectionFactory(configuration);
+        // Без таймаутов и с буферизацией команд при обрыве связи вызовы кэша зависают вместе с Redis
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .commandTimeout(redisTimeout)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(redisTimeout).build())
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                        .build())
+                .build();
+        return new LettuceConnectionFactory(configuration, clientConfiguration);
     }
 
     @Bean
     @Primary
     public ObjectMapper redisObjectMapper() {
+        return cacheObjectMapper();
+    }
+
+    /**
+     * ObjectMapper значений кэша: с типами классов в JSON, чтобы читать значения без знания их типа.
+     * Вынесен отдельно, чтобы бенчмарки кодека работали с той же настройкой без контекста Spring.
+     */
+    public static ObjectMapper cacheObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -52,11 +119,90 @@ public class RedisConfig {
     @Bean
     public RedisCacheConfiguration defaultCacheConfig(ObjectMapper redisObjectMapper) {
         StringRedisSerializer keySerializer = new StringRedisSerializer();
-        GenericJackson2JsonRedisSerializer valueSerializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+        RedisSerializer<Object> valueSerializer = "binary".equals(codec)
+                ? new CompactCacheValueSerializer(jsonSerializer, compressionThreshold)
+                : jsonSerializer;
 
         return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(2))
+                .entryTtl(new LoadedEntryTtl(Duration.ofMinutes(2), loadedTtl))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(keySerializer))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer));
     }
+
+    /**
+     * Ошибки кэша, не перехваченные автоматом, логируются, а метод выполняется без кэша.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler(false);
+    }
+
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(RedisConnectionFactory redisConnectionFactory,
+                                                   @Value("${app.cache.breaker.failure-threshold}") int failureThreshold,
+                                                   @Value("${app.cache.breaker.slow-call}") Duration slowCall,
+                                                   @Value("${app.cache.breaker.open-duration}") Duration openDuration) {
+        return new RedisCircuitBreaker(redisConnectionFactory, failureThreshold, slowCall, openDuration);
+    }
+
+    @Bean
+    public CacheStatistics cacheStatistics(MeterRegistry meterRegistry,
+                                           @Value("${app.cache.stats.tracked-key-sizes}") long trackedKeySizes) {
+        return new CacheStatistics(meterRegistry, trackedKeySizes);
+    }
+
+    @Bean
+    public HotKeyTracker hotKeyTracker(StringRedisTemplate stringRedisTemplate,
+                                       RedisCircuitBreaker redisCircuitBreaker,
+                                       @Value("${app.cache.hot-keys.retained}") int retainedKeys) {
+        return new HotKeyTracker(stringRedisTemplate, redisCircuitBreaker, retainedKeys);
+    }
+
+    @Bean
+    public CacheNamespaces cacheNamespaces(StringRedisTemplate stringRedisTemplate,
+                                           @Value("${app.cache.namespace-refresh}") Duration refreshInterval,
+                                           RedisCircuitBreaker redisCircuitBreaker) {
+        return new CacheNamespaces(stringRedisTemplate, namespaceChannel, refreshInterval, redisCircuitBreaker);
+    }
+
+    /**
+     * Двухуровневый менеджер: L1 в памяти узла перед общим Redis (L2).
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                             RedisCacheConfiguration defaultCacheConfig,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             CacheStatistics cacheStatistics,
+                                             HotKeyTracker hotKeyTracker,
+                                             RedisCircuitBreaker redisCircuitBreaker,
+                                             @Value("${app.cache.breaker.max-pending-evictions}") int maxPendingEvictions) {
+        RedisCacheWriter cacheWriter = new MeasuringRedisCacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(redisConnectionFactory), cacheStatistics);
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(defaultCacheConfig)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate,
+                invalidationChannel, localMaxSize, localTtl, staleGrace, cacheStatistics, hotKeyTracker,
+                redisCircuitBreaker, maxPendingEvictions);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheNamespaces cacheNamespaces,
+                                                                            ExistenceFilters existenceFilters,
+                                                                            NegativeLookupCache negativeLookups,
+                                                                            @Value("${app.lookup.bloom.channel}") String bloomChannel,
+                                                                            @Value("${app.cache.negative.channel}") String negativeChannel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        container.addMessageListener(cacheNamespaces, new ChannelTopic(namespaceChannel));
+        container.addMessageListener(existenceFilters, new ChannelTopic(bloomChannel));
+        container.addMessageListener(negativeLookups, new ChannelTopic(negativeChannel));
+        return container;
+    }
 }
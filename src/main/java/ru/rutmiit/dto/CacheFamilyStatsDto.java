@@ -0,0 +1,58 @@
+package ru.rutmiit.dto;
+
+public class CacheFamilyStatsDto {
+    private String family;
+
+    private long localHits;
+
+    private long remoteHits;
+
+    private long misses;
+
+    public CacheFamilyStatsDto() {
+    }
+
+    public CacheFamilyStatsDto(String family, long localHits, long remoteHits, long misses) {
+        this.family = family;
+        this.localHits = localHits;
+        this.remoteHits = remoteHits;
+        this.misses = misses;
+    }
+
+    public String getFamily() {
+        return family;
+    }
+
+    public void setFamily(String family) {
+        this.family = family;
+    }
+
+    public long getLocalHits() {
+        return localHits;
+    }
+
+    public void setLocalHits(long localHits) {
+        this.localHits = localHits;
+    }
+
+    public long getRemoteHits() {
+        return remoteHits;
+    }
+
+    public void setRemoteHits(long remoteHits) {
+        this.remoteHits = remoteHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRatio() {
+        long total = localHits + remoteHits + misses;
+        return total == 0 ? 0.0 : (double) (localHits + remoteHits) / total;
+    }
+}
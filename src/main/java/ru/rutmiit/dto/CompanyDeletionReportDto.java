@@ -0,0 +1,102 @@
+package ru.rutmiit.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог удаления компаний: по каждой компании — сколько сотрудников удалено и сколько это заняло.
+ */
+public class CompanyDeletionReportDto {
+    private long companiesRemoved;
+
+    private long employeesRemoved;
+
+    private long durationMs;
+
+    private List<Entry> companies = new ArrayList<>();
+
+    public long getCompaniesRemoved() {
+        return companiesRemoved;
+    }
+
+    public void setCompaniesRemoved(long companiesRemoved) {
+        this.companiesRemoved = companiesRemoved;
+    }
+
+    public long getEmployeesRemoved() {
+        return employeesRemoved;
+    }
+
+    public void setEmployeesRemoved(long employeesRemoved) {
+        this.employeesRemoved = employeesRemoved;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<Entry> getCompanies() {
+        return companies;
+    }
+
+    public void setCompanies(List<Entry> companies) {
+        this.companies = companies;
+    }
+
+    public static class Entry {
+        private String name;
+
+        private boolean removed;
+
+        private long employeesRemoved;
+
+        private long durationMs;
+
+        // Причина, по которой компания не удалена; сотрудники из завершённых пачек уже удалены
+        private String error;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isRemoved() {
+            return removed;
+        }
+
+        public void setRemoved(boolean removed) {
+            this.removed = removed;
+        }
+
+        public long getEmployeesRemoved() {
+            return employeesRemoved;
+        }
+
+        public void setEmployeesRemoved(long employeesRemoved) {
+            this.employeesRemoved = employeesRemoved;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public void setDurationMs(long durationMs) {
+            this.durationMs = durationMs;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
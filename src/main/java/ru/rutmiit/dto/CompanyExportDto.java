@@ -0,0 +1,37 @@
+package ru.rutmiit.dto;
+
+/**
+ * Строка выгрузки компаний; заполняется проекцией прямо из запроса.
+ */
+public class CompanyExportDto {
+    private final String name;
+
+    private final String town;
+
+    private final String description;
+
+    private final Double budget;
+
+    public CompanyExportDto(String name, String town, String description, Double budget) {
+        this.name = name;
+        this.town = town;
+        this.description = description;
+        this.budget = budget;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTown() {
+        return town;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.rutmiit.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class CompanyKeysetPageDto implements Serializable {
+    private List<ShowCompanyInfoDto> companies;
+
+    // Курсоры соседних страниц; null, если страницы нет
+    private String nextCursor;
+
+    private String prevCursor;
+
+    public CompanyKeysetPageDto() {
+    }
+
+    public CompanyKeysetPageDto(List<ShowCompanyInfoDto> companies, String nextCursor, String prevCursor) {
+        this.companies = companies;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+    public List<ShowCompanyInfoDto> getCompanies() {
+        return companies;
+    }
+
+    public void setCompanies(List<ShowCompanyInfoDto> companies) {
+        this.companies = companies;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.rutmiit.dto;
+
+import ru.rutmiit.models.enums.EducationLevel;
+
+import java.time.LocalDate;
+
+/**
+ * Строка выгрузки сотрудников; заполняется проекцией прямо из запроса.
+ */
+public class EmployeeExportDto {
+    private final String firstName;
+
+    private final String lastName;
+
+    private final EducationLevel educationLevel;
+
+    private final String jobTitle;
+
+    private final LocalDate birthDate;
+
+    private final Double salary;
+
+    private final String companyName;
+
+    public EmployeeExportDto(String firstName, String lastName, EducationLevel educationLevel, String jobTitle,
+                             LocalDate birthDate, Double salary, String companyName) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.educationLevel = educationLevel;
+        this.jobTitle = jobTitle;
+        this.birthDate = birthDate;
+        this.salary = salary;
+        this.companyName = companyName;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public EducationLevel getEducationLevel() {
+        return educationLevel;
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public LocalDate getBirthDate() {
+        return birthDate;
+    }
+
+    public Double getSalary() {
+        return salary;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+}
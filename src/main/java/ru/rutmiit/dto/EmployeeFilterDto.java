@@ -0,0 +1,83 @@
+package ru.rutmiit.dto;
+
+import ru.rutmiit.models.enums.EducationLevel;
+
+/**
+ * Фильтр списка сотрудников; незаполненные поля не ограничивают выборку.
+ */
+public class EmployeeFilterDto {
+    private String companyName;
+
+    private String jobTitle;
+
+    private EducationLevel educationLevel;
+
+    private Double minSalary;
+
+    private Double maxSalary;
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public void setCompanyName(String companyName) {
+        this.companyName = normalize(companyName);
+    }
+
+    public String getJobTitle() {
+        return jobTitle;
+    }
+
+    public void setJobTitle(String jobTitle) {
+        this.jobTitle = normalize(jobTitle);
+    }
+
+    public EducationLevel getEducationLevel() {
+        return educationLevel;
+    }
+
+    public void setEducationLevel(EducationLevel educationLevel) {
+        this.educationLevel = educationLevel;
+    }
+
+    public Double getMinSalary() {
+        return minSalary;
+    }
+
+    public void setMinSalary(Double minSalary) {
+        this.minSalary = minSalary;
+    }
+
+    public Double getMaxSalary() {
+        return maxSalary;
+    }
+
+    public void setMaxSalary(Double maxSalary) {
+        this.maxSalary = maxSalary;
+    }
+
+    // Часть ключа кэша страниц: одинаковые фильтры дают одинаковый ключ, разные — разный.
+    // Каждое поле записано с длиной (null — «-»), поэтому разделители внутри значений
+    // не позволяют двум фильтрам совпасть по ключу
+    public String cacheKey() {
+        StringBuilder key = new StringBuilder();
+        appendKeyPart(key, companyName);
+        appendKeyPart(key, jobTitle);
+        appendKeyPart(key, educationLevel != null ? educationLevel.name() : null);
+        appendKeyPart(key, minSalary != null ? minSalary.toString() : null);
+        appendKeyPart(key, maxSalary != null ? maxSalary.toString() : null);
+        return key.toString();
+    }
+
+    private static void appendKeyPart(StringBuilder key, String value) {
+        if (value == null) {
+            key.append('-');
+        } else {
+            key.append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,176 @@
+package ru.rutmiit.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог импорта сотрудников: общие счётчики и отчёт по каждой пачке строк.
+ */
+public class EmployeeImportReportDto {
+    private long totalRows;
+
+    private long imported;
+
+    private long rejected;
+
+    private long durationMs;
+
+    // Ошибка формата файла, прервавшая импорт; пачки до неё уже сохранены
+    private String error;
+
+    private List<Chunk> chunks = new ArrayList<>();
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<Chunk> chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * Пачка строк, вставляемая одним JDBC-батчем в отдельной транзакции.
+     */
+    public static class Chunk {
+        private int number;
+
+        private long firstRow;
+
+        private long lastRow;
+
+        private int imported;
+
+        private int rejected;
+
+        // Ошибка вставки: пачка откатывается целиком
+        private String failure;
+
+        private List<RowError> errors = new ArrayList<>();
+
+        public int getNumber() {
+            return number;
+        }
+
+        public void setNumber(int number) {
+            this.number = number;
+        }
+
+        public long getFirstRow() {
+            return firstRow;
+        }
+
+        public void setFirstRow(long firstRow) {
+            this.firstRow = firstRow;
+        }
+
+        public long getLastRow() {
+            return lastRow;
+        }
+
+        public void setLastRow(long lastRow) {
+            this.lastRow = lastRow;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public void setImported(int imported) {
+            this.imported = imported;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        public void setRejected(int rejected) {
+            this.rejected = rejected;
+        }
+
+        public String getFailure() {
+            return failure;
+        }
+
+        public void setFailure(String failure) {
+            this.failure = failure;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<RowError> errors) {
+            this.errors = errors;
+        }
+    }
+
+    public static class RowError {
+        private long row;
+
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.rutmiit.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public class EmployeeKeysetPageDto implements Serializable {
+    private List<ShowEmployeeInfoDto> employees;
+
+    // Курсоры соседних страниц; null, если страницы нет
+    private String nextCursor;
+
+    private String prevCursor;
+
+    public EmployeeKeysetPageDto() {
+    }
+
+    public EmployeeKeysetPageDto(List<ShowEmployeeInfoDto> employees, String nextCursor, String prevCursor) {
+        this.employees = employees;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+    }
+
+    public List<ShowEmployeeInfoDto> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<ShowEmployeeInfoDto> employees) {
+        this.employees = employees;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public void setPrevCursor(String prevCursor) {
+        this.prevCursor = prevCursor;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.rutmiit.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог массового перевода: сколько сотрудников переведено и что стало с каждым из запрошенных.
+ */
+public class EmployeeTransferReportDto {
+    private String companyName;
+
+    private long transferred;
+
+    private long durationMs;
+
+    private List<Entry> employees = new ArrayList<>();
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public void setCompanyName(String companyName) {
+        this.companyName = companyName;
+    }
+
+    public long getTransferred() {
+        return transferred;
+    }
+
+    public void setTransferred(long transferred) {
+        this.transferred = transferred;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<Entry> getEmployees() {
+        return employees;
+    }
+
+    public void setEmployees(List<Entry> employees) {
+        this.employees = employees;
+    }
+
+    public static class Entry {
+        private String fullName;
+
+        private String previousCompanyName;
+
+        private boolean transferred;
+
+        // Почему сотрудник не переведён: не найден или уже работает в этой компании
+        private String reason;
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        public void setFullName(String fullName) {
+            this.fullName = fullName;
+        }
+
+        public String getPreviousCompanyName() {
+            return previousCompanyName;
+        }
+
+        public void setPreviousCompanyName(String previousCompanyName) {
+            this.previousCompanyName = previousCompanyName;
+        }
+
+        public boolean isTransferred() {
+            return transferred;
+        }
+
+        public void setTransferred(boolean transferred) {
+            this.transferred = transferred;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
@@ -10,6 +10,15 @@ public class ShowCompanyInfoDto implements Serializable {
 
     private String description;
 
+    public ShowCompanyInfoDto() {
+    }
+
+    public ShowCompanyInfoDto(String name, String town, String description) {
+        this.name = name;
+        this.town = town;
+        this.description = description;
+    }
+
     public String getName() {
         return name;
     }
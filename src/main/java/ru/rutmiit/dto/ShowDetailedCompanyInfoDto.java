@@ -9,6 +9,12 @@ public class ShowDetailedCompanyInfoDto {
 
     private double budget;
 
+    private int employeeCount;
+
+    private double totalSalary;
+
+    private double averageSalary;
+
     public String getName() {
         return name;
     }
@@ -40,4 +46,28 @@ public class ShowDetailedCompanyInfoDto {
     public void setBudget(double budget) {
         this.budget = budget;
     }
+
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public void setEmployeeCount(int employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    public double getTotalSalary() {
+        return totalSalary;
+    }
+
+    public void setTotalSalary(double totalSalary) {
+        this.totalSalary = totalSalary;
+    }
+
+    public double getAverageSalary() {
+        return averageSalary;
+    }
+
+    public void setAverageSalary(double averageSalary) {
+        this.averageSalary = averageSalary;
+    }
 }
@@ -12,6 +12,16 @@ public class ShowEmployeeInfoDto implements Serializable {
 
     private LocalDate birthDate;
 
+    public ShowEmployeeInfoDto() {
+    }
+
+    public ShowEmployeeInfoDto(String firstName, String lastName, String jobTitle, LocalDate birthDate) {
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.jobTitle = jobTitle;
+        this.birthDate = birthDate;
+    }
+
     public String getFirstName() {
         return firstName;
     }
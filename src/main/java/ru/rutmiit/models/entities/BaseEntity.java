@@ -1,23 +1,28 @@
 package ru.rutmiit.models.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.UuidGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import ru.rutmiit.utils.ids.UuidV7Generator;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Базовая сущность с аудитом.
  * Все entity наследуются от этого класса и получают ID, дату создания и изменения.
+ * ID — упорядоченный по времени UUIDv7, в PostgreSQL хранится в столбце типа {@code uuid}.
  */
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
 
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -27,11 +32,11 @@ public abstract class BaseEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(UUID id) {
         this.id = id;
     }
 
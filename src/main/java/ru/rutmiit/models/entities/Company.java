@@ -21,6 +21,17 @@ public class Company extends BaseEntity {
     @Column(nullable = false)
     private String town;
     
+    // Счётчики сотрудников и фонда оплаты труда; меняются только атомарными UPDATE вместе
+    // с сотрудниками (CompanyRepository.adjustAggregates) и сверяются фоновой задачей.
+    // updatable = false: сохранение сущности не перезапишет их устаревшими значениями
+    @Column(name = "employee_count", columnDefinition = "INTEGER NOT NULL DEFAULT 0", nullable = false,
+            updatable = false)
+    private int employeeCount;
+
+    @Column(name = "total_salary", columnDefinition = "DECIMAL(19,2) NOT NULL DEFAULT 0", nullable = false,
+            updatable = false)
+    private double totalSalary;
+
     @OneToMany(mappedBy = "company", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private Set<Employee> employees = new HashSet<>();
 
@@ -59,6 +70,18 @@ public class Company extends BaseEntity {
         this.town = town;
     }
 
+    public int getEmployeeCount() {
+        return employeeCount;
+    }
+
+    public double getTotalSalary() {
+        return totalSalary;
+    }
+
+    public double getAverageSalary() {
+        return employeeCount == 0 ? 0 : totalSalary / employeeCount;
+    }
+
     public Set<Employee> getEmployees() {
         return employees;
     }
@@ -6,7 +6,16 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_full_name", columnList = "full_name"),
+        // PostgreSQL не индексирует внешние ключи сам: без индекса удаление компании сканирует всю таблицу
+        @Index(name = "idx_employees_company_id", columnList = "company_id"),
+        // Сортировки списка сотрудников с id для keyset-пагинации; по salary — и фильтр диапазона зарплат
+        @Index(name = "idx_employees_last_name_id", columnList = "last_name, id"),
+        @Index(name = "idx_employees_salary_id", columnList = "salary, id"),
+        @Index(name = "idx_employees_birth_date_id", columnList = "birth_date, id"),
+        @Index(name = "idx_employees_job_title", columnList = "job_title")
+})
 public class Employee extends BaseEntity {
 
     @Column(nullable = false)
@@ -25,6 +34,10 @@ public class Employee extends BaseEntity {
     @Column(nullable = false)
     private String lastName;
 
+    // "Имя Фамилия" — ключ поиска по полному имени, поддерживается сущностью
+    @Column(name = "full_name")
+    private String fullName;
+
     @Column(columnDefinition = "DECIMAL(19,2)", nullable = false)
     private Double salary;
 
@@ -72,6 +85,16 @@ public class Employee extends BaseEntity {
         this.lastName = lastName;
     }
 
+    public String getFullName() {
+        return fullName;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateFullName() {
+        this.fullName = firstName + " " + lastName;
+    }
+
     public Double getSalary() {
         return salary;
     }
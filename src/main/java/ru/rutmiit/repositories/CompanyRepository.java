@@ -1,19 +1,31 @@
 package ru.rutmiit.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import ru.rutmiit.dto.CompanyExportDto;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
 import ru.rutmiit.models.entities.Company;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface CompanyRepository extends JpaRepository<Company, String> {
+public interface CompanyRepository extends JpaRepository<Company, UUID> {
     
     // Простой поиск по имени
     Optional<Company> findByName(String name);
@@ -21,21 +33,59 @@ public interface CompanyRepository extends JpaRepository<Company, String> {
     // Проверка существования
     boolean existsByName(String name);
 
+    // Все названия для фильтра Блума
+    @Query("SELECT c.name FROM Company c")
+    List<String> findAllNames();
+
+    // Соответствие названия и id для массового импорта сотрудников
+    @Query("SELECT c.name AS name, c.id AS id FROM Company c")
+    List<CompanyIdView> findAllIds();
+
+    interface CompanyIdView {
+        String getName();
+
+        UUID getId();
+    }
+
+    // Проекции: выбираются только нужные DTO колонки, сущности не попадают в контекст персистентности
+    @Query("SELECT new ru.rutmiit.dto.ShowCompanyInfoDto(c.name, c.town, c.description) FROM Company c")
+    List<ShowCompanyInfoDto> findAllInfo();
+
     // Поиск по городу
-    List<Company> findByTown(String town);
+    @Query("SELECT new ru.rutmiit.dto.ShowCompanyInfoDto(c.name, c.town, c.description) " +
+           "FROM Company c WHERE c.town = :town")
+    List<ShowCompanyInfoDto> findInfoByTown(@Param("town") String town);
 
     // Поиск с условием и сортировкой
-    List<Company> findByBudgetGreaterThanOrderByBudgetDesc(Double minBudget);
-
-    // Custom Query для полнотекстового поиска
-    @Query("SELECT c FROM Company c WHERE " +
-           "LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(c.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<Company> searchByNameOrDescription(@Param("searchTerm") String searchTerm);
-
-    // Удаление по имени
-    @Modifying
-    @Transactional
-    void deleteByName(String name);
+    @Query("SELECT new ru.rutmiit.dto.ShowCompanyInfoDto(c.name, c.town, c.description) " +
+           "FROM Company c WHERE c.budget > :minBudget ORDER BY c.budget DESC")
+    List<ShowCompanyInfoDto> findInfoByBudgetGreaterThan(@Param("minBudget") Double minBudget);
+
+    // Выгрузка курсором на стороне сервера, см. EmployeeRepository.streamAllForExport
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.rutmiit.dto.CompanyExportDto(c.name, c.town, c.description, c.budget) FROM Company c")
+    Stream<CompanyExportDto> streamAllForExport();
+
+    // Полнотекстовый поиск по search_vector (GIN) и поиск подстроки/похожих названий через pg_trgm.
+    // Колонка и индексы создаются скриптом db/maintenance/companies-search.sql.
+    // :pattern — searchTerm с экранированными % и _, обрамлённый % для ILIKE.
+    @Query(value = "SELECT c.* FROM companies c, websearch_to_tsquery('russian', :searchTerm) q " +
+                   "WHERE c.search_vector @@ q OR c.name ILIKE :pattern OR c.name % :searchTerm " +
+                   "ORDER BY ts_rank(c.search_vector, q) + similarity(c.name, :searchTerm) DESC, c.name",
+           countQuery = "SELECT count(*) FROM companies c, websearch_to_tsquery('russian', :searchTerm) q " +
+                        "WHERE c.search_vector @@ q OR c.name ILIKE :pattern OR c.name % :searchTerm",
+           nativeQuery = true)
+    Page<Company> search(@Param("searchTerm") String searchTerm, @Param("pattern") String pattern, Pageable pageable);
+
+    // Keyset-пагинация: WHERE (sort, id) > (:last) вместо OFFSET
+    Window<Company> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Атомарное изменение счётчиков в той же транзакции, что и изменение сотрудников:
+    // UPDATE ... SET x = x + :delta не теряет обновления при конкурентных транзакциях
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE companies SET employee_count = employee_count + :count, " +
+                   "total_salary = total_salary + :salary WHERE id = :id",
+           nativeQuery = true)
+    int adjustAggregates(@Param("id") UUID id, @Param("count") int count, @Param("salary") double salary);
 }
 
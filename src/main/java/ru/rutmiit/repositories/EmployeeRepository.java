@@ -1,19 +1,49 @@
 package ru.rutmiit.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import ru.rutmiit.dto.EmployeeExportDto;
+import ru.rutmiit.dto.ShowEmployeeInfoDto;
 import ru.rutmiit.models.entities.Employee;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, String> {
-    @Query("SELECT e FROM Employee AS e LEFT JOIN FETCH e.company WHERE CONCAT(e.firstName, ' ', e.lastName) = :fullName")
+public interface EmployeeRepository extends JpaRepository<Employee, UUID>, JpaSpecificationExecutor<Employee> {
+    // Полный список без фильтров; страницы списка сотрудников выбираются через findBy с EmployeeSpecifications
+    @Query("SELECT new ru.rutmiit.dto.ShowEmployeeInfoDto(e.firstName, e.lastName, e.jobTitle, e.birthDate) FROM Employee e")
+    List<ShowEmployeeInfoDto> findAllInfo();
+
+    // Выгрузка курсором на стороне сервера: строки приходят пачками по fetchSize,
+    // поток нужно читать внутри транзакции и закрывать
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.rutmiit.dto.EmployeeExportDto(e.firstName, e.lastName, e.educationLevel, e.jobTitle, " +
+           "e.birthDate, e.salary, c.name) FROM Employee e LEFT JOIN e.company c")
+    Stream<EmployeeExportDto> streamAllForExport();
+
+    @Query("SELECT e FROM Employee AS e LEFT JOIN FETCH e.company WHERE e.fullName = :fullName")
     Employee findEmployeeByFullName(String fullName);
 
+    // Для увольнения и перевода: строка блокируется до конца транзакции, и параллельные
+    // изменения одного сотрудника не пересчитывают счётчики компаний по одному и тому же
+    // состоянию. Без JOIN FETCH — PostgreSQL не блокирует строки внешнего соединения
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Employee AS e WHERE e.fullName = :fullName")
+    Employee findEmployeeForUpdateByFullName(String fullName);
+
     @Modifying
     @Transactional
-    @Query("DELETE FROM Employee AS e WHERE CONCAT(e.firstName, ' ', e.lastName) = :fullName")
+    @Query("DELETE FROM Employee AS e WHERE e.fullName = :fullName")
     void deleteEmployeeByFullName(String fullName);
 }
@@ -0,0 +1,42 @@
+package ru.rutmiit.repositories;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import ru.rutmiit.dto.EmployeeFilterDto;
+import ru.rutmiit.models.entities.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Условия выборки сотрудников для {@link EmployeeRepository#findBy}.
+ * Каждый заполненный фильтр добавляет равенство или диапазон по индексированной колонке.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> matching(EmployeeFilterDto filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCompanyName() != null) {
+                // Неявное внутреннее соединение: компания находится по уникальному имени, сотрудники — по company_id
+                predicates.add(cb.equal(root.get("company").get("name"), filter.getCompanyName()));
+            }
+            if (filter.getJobTitle() != null) {
+                predicates.add(cb.equal(root.get("jobTitle"), filter.getJobTitle()));
+            }
+            if (filter.getEducationLevel() != null) {
+                predicates.add(cb.equal(root.get("educationLevel"), filter.getEducationLevel()));
+            }
+            if (filter.getMinSalary() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("salary"), filter.getMinSalary()));
+            }
+            if (filter.getMaxSalary() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("salary"), filter.getMaxSalary()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
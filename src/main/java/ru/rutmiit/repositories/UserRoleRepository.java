@@ -6,8 +6,9 @@ import ru.rutmiit.models.entities.Role;
 import ru.rutmiit.models.enums.UserRoles;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface UserRoleRepository extends JpaRepository<Role, String> {
+public interface UserRoleRepository extends JpaRepository<Role, UUID> {
     Optional<Role> findRoleByName(UserRoles role);
 }
@@ -6,5 +6,9 @@ import ru.rutmiit.models.entities.User;
 public interface AuthService {
     void register(UserRegistrationDto registrationDTO);
 
+    boolean isUsernameTaken(String username);
+
+    boolean isEmailTaken(String email);
+
     User getUser(String username);
 }
@@ -9,6 +9,7 @@ import ru.rutmiit.models.entities.User;
 import ru.rutmiit.models.enums.UserRoles;
 import ru.rutmiit.repositories.UserRepository;
 import ru.rutmiit.repositories.UserRoleRepository;
+import ru.rutmiit.utils.cache.ExistenceFilters;
 
 import java.util.List;
 
@@ -19,11 +20,14 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ExistenceFilters existenceFilters;
 
-    public AuthServiceImpl(UserRepository userRepository, UserRoleRepository userRoleRepository, PasswordEncoder passwordEncoder) {
+    public AuthServiceImpl(UserRepository userRepository, UserRoleRepository userRoleRepository,
+                           PasswordEncoder passwordEncoder, ExistenceFilters existenceFilters) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userRoleRepository = userRoleRepository;
+        this.existenceFilters = existenceFilters;
     }
 
     @Override
@@ -33,7 +37,8 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("passwords.match");
         }
 
-        if (userRepository.findByEmail(registrationDTO.getEmail()).isPresent()) {
+        if (existenceFilters.mightContain(ExistenceFilters.Kind.EMAIL, registrationDTO.getEmail())
+                && userRepository.existsByEmail(registrationDTO.getEmail())) {
             throw new RuntimeException("email.used");
         }
 
@@ -50,6 +55,23 @@ public class AuthServiceImpl implements AuthService {
         user.setRoles(List.of(userRole));
 
         userRepository.save(user);
+        existenceFilters.add(ExistenceFilters.Kind.USERNAME, user.getUsername());
+        existenceFilters.add(ExistenceFilters.Kind.EMAIL, user.getEmail());
+    }
+
+    /**
+     * Проверка по основной БД: строка, нарушившая уникальный индекс, могла ещё не дойти до реплики.
+     */
+    @Override
+    @Transactional
+    public boolean isUsernameTaken(String username) {
+        return userRepository.existsByUsername(username);
+    }
+
+    @Override
+    @Transactional
+    public boolean isEmailTaken(String email) {
+        return userRepository.existsByEmail(email);
     }
 
     @Override
@@ -0,0 +1,10 @@
+package ru.rutmiit.services;
+
+import ru.rutmiit.dto.CacheFamilyStatsDto;
+
+import java.util.List;
+
+public interface CacheReportService {
+
+    List<CacheFamilyStatsDto> keyFamilyReport();
+}
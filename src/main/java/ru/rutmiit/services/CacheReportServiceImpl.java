@@ -0,0 +1,24 @@
+package ru.rutmiit.services;
+
+import org.springframework.stereotype.Service;
+import ru.rutmiit.dto.CacheFamilyStatsDto;
+import ru.rutmiit.utils.cache.CacheStatistics;
+
+import java.util.List;
+
+@Service
+public class CacheReportServiceImpl implements CacheReportService {
+    private final CacheStatistics cacheStatistics;
+
+    public CacheReportServiceImpl(CacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    @Override
+    public List<CacheFamilyStatsDto> keyFamilyReport() {
+        return cacheStatistics.snapshot().entrySet().stream()
+                .map(e -> new CacheFamilyStatsDto(e.getKey(),
+                        e.getValue().localHits(), e.getValue().remoteHits(), e.getValue().misses()))
+                .toList();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.rutmiit.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Фоновая сверка счётчиков компаний ({@code employee_count}, {@code total_salary})
+ * с фактическими данными таблицы сотрудников.
+ * <p>
+ * Расхождения — признак изменения сотрудников в обход сервисов (ручной SQL, сбой
+ * посреди миграции). Каждая найденная компания пересчитывается в своей транзакции
+ * после блокировки её строки: незавершённые транзакции, уже изменившие счётчик,
+ * успевают закоммититься, а начатые позже прибавят своё к пересчитанному значению.
+ * Между узлами сверка разыгрывается через блокировку в Redis.
+ */
+@Slf4j
+@Component
+public class CompanyAggregatesReconciler {
+
+    private static final String LOCK = "company:aggregates:reconcile-lock";
+
+    private static final String MISMATCHES_SQL = "SELECT c.id, c.name FROM companies c " +
+            "LEFT JOIN (SELECT company_id, count(*) AS employee_count, sum(salary) AS total_salary " +
+            "           FROM employees GROUP BY company_id) a ON a.company_id = c.id " +
+            "WHERE c.employee_count <> COALESCE(a.employee_count, 0) " +
+            "   OR c.total_salary <> COALESCE(a.total_salary, 0)";
+
+    private static final String LOCK_SQL = "SELECT id FROM companies WHERE id = ? FOR UPDATE";
+
+    private static final String RECOUNT_SQL = "UPDATE companies c SET " +
+            "employee_count = (SELECT count(*) FROM employees e WHERE e.company_id = c.id), " +
+            "total_salary = (SELECT COALESCE(sum(e.salary), 0) FROM employees e WHERE e.company_id = c.id) " +
+            "WHERE c.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final Duration interval;
+
+    public CompanyAggregatesReconciler(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       StringRedisTemplate redisTemplate,
+                                       CacheInvalidator cacheInvalidator,
+                                       @Value("${app.company.aggregates.reconcile-interval}") Duration interval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.redisTemplate = redisTemplate;
+        this.cacheInvalidator = cacheInvalidator;
+        this.interval = interval;
+        log.info("CompanyAggregatesReconciler инициализирован");
+    }
+
+    @Scheduled(fixedDelayString = "${app.company.aggregates.reconcile-interval}",
+               initialDelayString = "${app.company.aggregates.reconcile-interval}")
+    public void reconcile() {
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK, "1", interval.dividedBy(2));
+            if (!Boolean.TRUE.equals(acquired)) {
+                return;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Сверка счётчиков компаний пропущена: {}", ex.getMessage());
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        List<String> fixed = new ArrayList<>();
+        try {
+            for (Map<String, Object> mismatch : jdbcTemplate.queryForList(MISMATCHES_SQL)) {
+                UUID id = (UUID) mismatch.get("id");
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList(LOCK_SQL, String.class, id);
+                    jdbcTemplate.update(RECOUNT_SQL, id);
+                });
+                fixed.add((String) mismatch.get("name"));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Сверка счётчиков компаний прервана: {}", ex.getMessage());
+        }
+
+        if (fixed.isEmpty()) {
+            log.debug("Счётчики компаний сходятся, сверка заняла {} мс", System.currentTimeMillis() - started);
+            return;
+        }
+        log.warn("Исправлены счётчики компаний ({}): {}", fixed.size(), fixed);
+        cacheInvalidator.companyAggregatesChanged(fixed);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.rutmiit.services;
+
+import ru.rutmiit.dto.CompanyDeletionReportDto;
+
+import java.util.Collection;
+
+public interface CompanyDeletionService {
+    CompanyDeletionReportDto removeCompanies(Collection<String> companyNames);
+}
@@ -0,0 +1,139 @@
+package ru.rutmiit.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.dto.CompanyDeletionReportDto;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Удаление компаний вместе с сотрудниками set-based запросами, без загрузки
+ * {@code Company.employees} и поштучных DELETE каскада JPA.
+ * <p>
+ * Сотрудники крупной компании удаляются пачками по {@code app.company.delete.chunk-size},
+ * каждая в своей транзакции вместе с уменьшением счётчиков компании, чтобы не держать
+ * долгих блокировок. Последняя транзакция блокирует строку компании (дожидаясь
+ * параллельных добавлений сотрудников), удаляет оставшихся сотрудников и саму компанию.
+ */
+@Slf4j
+@Service
+public class CompanyDeletionServiceImpl implements CompanyDeletionService {
+
+    private static final String FIND_SQL = "SELECT id, employee_count FROM companies WHERE name = ?";
+
+    private static final String DELETE_CHUNK_SQL = "DELETE FROM employees WHERE id IN " +
+            "(SELECT id FROM employees WHERE company_id = ? LIMIT ?) RETURNING salary";
+
+    private static final String AGGREGATES_SQL = "UPDATE companies SET employee_count = employee_count - ?, " +
+            "total_salary = total_salary - ? WHERE id = ?";
+
+    private static final String LOCK_SQL = "SELECT id FROM companies WHERE id = ? FOR UPDATE";
+
+    private static final String DELETE_EMPLOYEES_SQL = "DELETE FROM employees WHERE company_id = ?";
+
+    private static final String DELETE_COMPANY_SQL = "DELETE FROM companies WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final int chunkSize;
+
+    public CompanyDeletionServiceImpl(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      CacheInvalidator cacheInvalidator,
+                                      @Value("${app.company.delete.chunk-size}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidator = cacheInvalidator;
+        this.chunkSize = chunkSize;
+        log.info("CompanyDeletionServiceImpl инициализирован, размер пачки: {}", chunkSize);
+    }
+
+    @Override
+    public CompanyDeletionReportDto removeCompanies(Collection<String> companyNames) {
+        long started = System.nanoTime();
+        CompanyDeletionReportDto report = new CompanyDeletionReportDto();
+        List<String> touched = new ArrayList<>();
+
+        for (String companyName : companyNames) {
+            CompanyDeletionReportDto.Entry entry = removeCompany(companyName);
+            report.getCompanies().add(entry);
+            report.setEmployeesRemoved(report.getEmployeesRemoved() + entry.getEmployeesRemoved());
+            if (entry.isRemoved()) {
+                report.setCompaniesRemoved(report.getCompaniesRemoved() + 1);
+            }
+            if (entry.isRemoved() || entry.getEmployeesRemoved() > 0) {
+                touched.add(companyName);
+            }
+        }
+
+        if (!touched.isEmpty()) {
+            cacheInvalidator.companiesRemoved(touched);
+        }
+        report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.info("Удалено компаний: {} из {}, сотрудников: {}, {} мс", report.getCompaniesRemoved(),
+                companyNames.size(), report.getEmployeesRemoved(), report.getDurationMs());
+        return report;
+    }
+
+    private CompanyDeletionReportDto.Entry removeCompany(String companyName) {
+        long started = System.nanoTime();
+        CompanyDeletionReportDto.Entry entry = new CompanyDeletionReportDto.Entry();
+        entry.setName(companyName);
+
+        List<Map<String, Object>> found = jdbcTemplate.queryForList(FIND_SQL, companyName);
+        if (found.isEmpty()) {
+            entry.setError("Компания не найдена");
+            return entry;
+        }
+        UUID companyId = (UUID) found.get(0).get("id");
+        int employeeCount = ((Number) found.get(0).get("employee_count")).intValue();
+
+        try {
+            if (employeeCount > chunkSize) {
+                int deleted;
+                do {
+                    deleted = deleteChunk(companyId);
+                    entry.setEmployeesRemoved(entry.getEmployeesRemoved() + deleted);
+                } while (deleted == chunkSize);
+            }
+            Integer rest = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForList(LOCK_SQL, String.class, companyId);
+                int employees = jdbcTemplate.update(DELETE_EMPLOYEES_SQL, companyId);
+                jdbcTemplate.update(DELETE_COMPANY_SQL, companyId);
+                return employees;
+            });
+            entry.setEmployeesRemoved(entry.getEmployeesRemoved() + rest);
+            entry.setRemoved(true);
+        } catch (DataAccessException ex) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            log.warn("Компания {} не удалена: {}", companyName, reason);
+            entry.setError(reason);
+        }
+
+        entry.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.debug("Компания {}: удалено сотрудников {}, {} мс", companyName,
+                entry.getEmployeesRemoved(), entry.getDurationMs());
+        return entry;
+    }
+
+    private int deleteChunk(UUID companyId) {
+        return transactionTemplate.execute(status -> {
+            List<Double> salaries = jdbcTemplate.queryForList(DELETE_CHUNK_SQL, Double.class, companyId, chunkSize);
+            double total = salaries.stream().mapToDouble(Double::doubleValue).sum();
+            jdbcTemplate.update(AGGREGATES_SQL, salaries.size(), total, companyId);
+            return salaries.size();
+        });
+    }
+}
@@ -3,6 +3,7 @@ package ru.rutmiit.services;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.rutmiit.dto.AddCompanyDto;
+import ru.rutmiit.dto.CompanyKeysetPageDto;
 import ru.rutmiit.dto.ShowCompanyInfoDto;
 import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
 
@@ -12,11 +13,19 @@ public interface CompanyService {
 
     void addCompany(AddCompanyDto companyDTO);
 
+    boolean isCompanyNameTaken(String name);
+
     List<ShowCompanyInfoDto> allCompanies();
 
+    List<ShowCompanyInfoDto> refreshAllCompanies();
+
     Page<ShowCompanyInfoDto> allCompaniesPaginated(Pageable pageable);
 
-    List<ShowCompanyInfoDto> searchCompanies(String searchTerm);
+    CompanyKeysetPageDto scrollCompanies(String cursor, int size, String sortBy);
+
+    long companyCount();
+
+    Page<ShowCompanyInfoDto> searchCompanies(String searchTerm, Pageable pageable);
 
     List<ShowCompanyInfoDto> findByTown(String town);
 
@@ -24,5 +33,7 @@ public interface CompanyService {
 
     ShowDetailedCompanyInfoDto companyDetails(String companyName);
 
+    ShowDetailedCompanyInfoDto refreshCompanyDetails(String companyName);
+
     void removeCompany(String companyName);
 }
@@ -1,113 +1,253 @@
 package ru.rutmiit.services;
 
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.rutmiit.dto.AddCompanyDto;
+import ru.rutmiit.dto.CompanyDeletionReportDto;
+import ru.rutmiit.dto.CompanyKeysetPageDto;
 import ru.rutmiit.dto.ShowCompanyInfoDto;
 import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
 import ru.rutmiit.models.entities.Company;
 import ru.rutmiit.models.exceptions.CompanyNotFoundException;
 import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+import ru.rutmiit.utils.cache.CacheNamespaces;
+import ru.rutmiit.utils.cache.CachedPage;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+import ru.rutmiit.utils.cache.NegativeLookupCache;
+import ru.rutmiit.utils.mapping.CompanyMapper;
+import ru.rutmiit.utils.pagination.KeysetCursors;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class CompanyServiceImpl implements CompanyService {
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> KEYSET_SORT_COLUMNS = Set.of("name", "town", "budget");
+
     private final CompanyRepository companyRepository;
-    private final ModelMapper mapper;
+    private final CompanyMapper mapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final ExistenceFilters existenceFilters;
+    private final NegativeLookupCache negativeLookups;
+    private final CacheNamespaces cacheNamespaces;
+    private final CompanyDeletionService companyDeletionService;
+    private volatile CachedCount cachedCount;
 
-    public CompanyServiceImpl(CompanyRepository companyRepository, ModelMapper mapper) {
+    public CompanyServiceImpl(CompanyRepository companyRepository, CompanyMapper mapper, CacheInvalidator cacheInvalidator,
+                              ExistenceFilters existenceFilters, NegativeLookupCache negativeLookups,
+                              CacheNamespaces cacheNamespaces, CompanyDeletionService companyDeletionService) {
         this.companyRepository = companyRepository;
         this.mapper = mapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.existenceFilters = existenceFilters;
+        this.negativeLookups = negativeLookups;
+        this.cacheNamespaces = cacheNamespaces;
+        this.companyDeletionService = companyDeletionService;
         log.info("CompanyServiceImpl инициализирован");
     }
 
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "companies", allEntries = true)
     public void addCompany(AddCompanyDto companyDTO) {
         log.debug("Добавление новой компании: {}", companyDTO.getName());
-        Company company = mapper.map(companyDTO, Company.class);
+        Company company = mapper.toEntity(companyDTO);
         companyRepository.save(company);
+        existenceFilters.add(ExistenceFilters.Kind.COMPANY_NAME, company.getName());
+        cacheInvalidator.companyAdded(company.getName());
         log.info("Компания успешно добавлена: {} в городе {}", company.getName(), company.getTown());
     }
 
+    /**
+     * Проверка по основной БД: строка, нарушившая уникальный индекс, могла ещё не дойти до реплики.
+     */
+    @Override
+    @Transactional
+    public boolean isCompanyNameTaken(String name) {
+        return companyRepository.existsByName(name);
+    }
+
     @Override
-    @Cacheable(value = "companies", key = "'all'")
+    @Cacheable(value = "companies", key = "'all'", sync = true)
     public List<ShowCompanyInfoDto> allCompanies() {
         log.debug("Получение списка всех компаний");
-        List<ShowCompanyInfoDto> companies = companyRepository.findAll().stream()
-                .map(company -> mapper.map(company, ShowCompanyInfoDto.class))
-                .collect(Collectors.toList());
+        return loadAllCompanies();
+    }
+
+    @Override
+    @CachePut(value = "companies", key = "'all'")
+    public List<ShowCompanyInfoDto> refreshAllCompanies() {
+        log.debug("Обновление кэша списка всех компаний");
+        return loadAllCompanies();
+    }
+
+    private List<ShowCompanyInfoDto> loadAllCompanies() {
+        List<ShowCompanyInfoDto> companies = companyRepository.findAllInfo();
         log.info("Найдено компаний: {}", companies.size());
         return companies;
     }
 
     @Override
+    @Cacheable(value = "companyPages", sync = true,
+            key = "'page:' + #pageable.pageNumber + ':' + #pageable.pageSize + ':' + #pageable.sort"
+                    + " + ':v' + @cacheNamespaces.version('companies')")
     public Page<ShowCompanyInfoDto> allCompaniesPaginated(Pageable pageable) {
         log.debug("Получение компаний с пагинацией: страница {}, размер {}",
                 pageable.getPageNumber(), pageable.getPageSize());
-        return companyRepository.findAll(pageable)
-                .map(company -> mapper.map(company, ShowCompanyInfoDto.class));
+        return new CachedPage<>(companyRepository.findAll(pageable)
+                .map(mapper::toInfo));
     }
 
     @Override
-    public List<ShowCompanyInfoDto> searchCompanies(String searchTerm) {
-        log.debug("Поиск компаний по запросу: {}", searchTerm);
-        List<ShowCompanyInfoDto> results = companyRepository.searchByNameOrDescription(searchTerm).stream()
-                .map(company -> mapper.map(company, ShowCompanyInfoDto.class))
+    @Cacheable(value = "companyPages", sync = true,
+            key = "'keyset:' + #sortBy + ':' + #size + ':' + (#cursor ?: 'first')"
+                    + " + ':v' + @cacheNamespaces.version('companies')")
+    public CompanyKeysetPageDto scrollCompanies(String cursor, int size, String sortBy) {
+        log.debug("Получение компаний по курсору: {}, размер {}, сортировка {}", cursor, size, sortBy);
+        if (!KEYSET_SORT_COLUMNS.contains(sortBy)) {
+            throw new IllegalArgumentException("Недопустимое поле сортировки: " + sortBy);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        // id делает ключ сортировки уникальным, иначе записи с одинаковым значением терялись бы на границе страниц
+        Sort sort = Sort.by(sortBy).ascending().and(Sort.by("id").ascending());
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null) {
+            position = KeysetCursors.decode(cursor);
+            if (!position.getKeys().keySet().equals(Set.of(sortBy, "id"))) {
+                throw new IllegalArgumentException("Курсор страницы не соответствует сортировке");
+            }
+        }
+
+        Window<Company> window = companyRepository.findAllBy(position, sort, Limit.of(size));
+        List<ShowCompanyInfoDto> companies = window.stream()
+                .map(mapper::toInfo)
                 .collect(Collectors.toList());
-        log.info("По запросу '{}' найдено компаний: {}", searchTerm, results.size());
-        return results;
+        if (companies.isEmpty()) {
+            return new CompanyKeysetPageDto(companies, null, null);
+        }
+
+        KeysetScrollPosition first = (KeysetScrollPosition) window.positionAt(0);
+        KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(companies.size() - 1);
+        // При движении назад hasNext означает, что есть записи перед текущей страницей
+        boolean hasNext = position.scrollsForward() ? window.hasNext() : cursor != null;
+        boolean hasPrev = position.scrollsForward() ? cursor != null : window.hasNext();
+        return new CompanyKeysetPageDto(companies,
+                hasNext ? KeysetCursors.encode(ScrollPosition.forward(last.getKeys())) : null,
+                hasPrev ? KeysetCursors.encode(ScrollPosition.backward(first.getKeys())) : null);
+    }
+
+    /**
+     * Число компаний пересчитывается только после изменения списка (смены версии
+     * пространства ключей companies), а не на каждый запрос страницы.
+     */
+    @Override
+    public long companyCount() {
+        long version = cacheNamespaces.version(CacheInvalidator.COMPANIES_NAMESPACE);
+        CachedCount cached = cachedCount;
+        if (cached != null && cached.version() == version) {
+            return cached.count();
+        }
+        long count = companyRepository.count();
+        cachedCount = new CachedCount(version, count);
+        return count;
+    }
+
+    @Override
+    @Cacheable(value = "companySearch", sync = true,
+            key = "'search:' + #searchTerm.toLowerCase() + ':' + #pageable.pageNumber + ':' + #pageable.pageSize"
+                    + " + ':v' + @cacheNamespaces.version('companies')")
+    public Page<ShowCompanyInfoDto> searchCompanies(String searchTerm, Pageable pageable) {
+        log.debug("Поиск компаний по запросу: {}, страница {}", searchTerm, pageable.getPageNumber());
+        // Порядок задаёт релевантность, поэтому сортировка из запроса не используется
+        Pageable ranked = PageRequest.of(pageable.getPageNumber(), Math.min(pageable.getPageSize(), MAX_SEARCH_PAGE_SIZE));
+        Page<ShowCompanyInfoDto> results = companyRepository.search(searchTerm, likePattern(searchTerm), ranked)
+                .map(mapper::toInfo);
+        log.info("По запросу '{}' найдено компаний: {}", searchTerm, results.getTotalElements());
+        return new CachedPage<>(results);
+    }
+
+    private static String likePattern(String searchTerm) {
+        String escaped = searchTerm.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
     @Override
     public List<ShowCompanyInfoDto> findByTown(String town) {
         log.debug("Поиск компаний в городе: {}", town);
-        return companyRepository.findByTown(town).stream()
-                .map(company -> mapper.map(company, ShowCompanyInfoDto.class))
-                .collect(Collectors.toList());
+        return companyRepository.findInfoByTown(town);
     }
 
     @Override
     public List<ShowCompanyInfoDto> findByBudgetGreaterThan(Double minBudget) {
         log.debug("Поиск компаний с бюджетом больше: {}", minBudget);
-        return companyRepository.findByBudgetGreaterThanOrderByBudgetDesc(minBudget).stream()
-                .map(company -> mapper.map(company, ShowCompanyInfoDto.class))
-                .collect(Collectors.toList());
+        return companyRepository.findInfoByBudgetGreaterThan(minBudget);
     }
 
     @Override
-    @Cacheable(value = "company", key = "#companyName", unless = "#result == null")
+    @Cacheable(value = "company", key = "#companyName", sync = true)
     public ShowDetailedCompanyInfoDto companyDetails(String companyName) {
         log.debug("Получение деталей компании: {}", companyName);
+        return loadCompanyDetails(companyName);
+    }
+
+    @Override
+    @CachePut(value = "company", key = "#companyName")
+    public ShowDetailedCompanyInfoDto refreshCompanyDetails(String companyName) {
+        log.debug("Обновление кэша деталей компании: {}", companyName);
+        return loadCompanyDetails(companyName);
+    }
+
+    private ShowDetailedCompanyInfoDto loadCompanyDetails(String companyName) {
+        // Фильтр Блума здесь не используется: на узле, пропустившем рассылку, он отвечал бы
+        // «нет» для существующей компании до следующего перестроения
+        if (negativeLookups.isKnownMissing(NegativeLookupCache.COMPANY, companyName)) {
+            log.debug("Компания заведомо отсутствует: {}", companyName);
+            throw new CompanyNotFoundException("Компания с именем '" + companyName + "' не найдена");
+        }
         Company company = companyRepository.findByName(companyName)
                 .orElseThrow(() -> {
                     log.warn("Компания не найдена: {}", companyName);
+                    negativeLookups.recordMissing(NegativeLookupCache.COMPANY, companyName);
                     return new CompanyNotFoundException("Компания с именем '" + companyName + "' не найдена");
                 });
-        return mapper.map(company, ShowDetailedCompanyInfoDto.class);
+        return mapper.toDetailedInfo(company);
     }
 
     @Override
-    @Transactional
-    @CacheEvict(cacheNames = {"companies", "company", "employees"}, allEntries = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeCompany(String companyName) {
         log.debug("Удаление компании: {}", companyName);
         if (!companyRepository.existsByName(companyName)) {
             log.warn("Попытка удалить несуществующую компанию: {}", companyName);
             throw new CompanyNotFoundException("Компания с именем '" + companyName + "' не найдена");
         }
-        companyRepository.deleteByName(companyName);
-        log.info("Компания успешно удалена: {}", companyName);
+        CompanyDeletionReportDto.Entry result = companyDeletionService.removeCompanies(List.of(companyName))
+                .getCompanies().get(0);
+        if (!result.isRemoved()) {
+            throw new IllegalStateException("Не удалось удалить компанию '" + companyName + "': " + result.getError());
+        }
+        log.info("Компания успешно удалена: {}, сотрудников: {}", companyName, result.getEmployeesRemoved());
+    }
+
+    private record CachedCount(long version, long count) {
     }
 }
@@ -0,0 +1,8 @@
+package ru.rutmiit.services;
+
+import ru.rutmiit.dto.EmployeeImportReportDto;
+import ru.rutmiit.utils.importing.EmployeeRowSource;
+
+public interface EmployeeImportService {
+    EmployeeImportReportDto importEmployees(EmployeeRowSource rows);
+}
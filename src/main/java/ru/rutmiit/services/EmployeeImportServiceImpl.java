@@ -0,0 +1,221 @@
+package ru.rutmiit.services;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.EmployeeImportReportDto;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+import ru.rutmiit.utils.ids.UuidV7Generator;
+import ru.rutmiit.utils.importing.EmployeeRowSource;
+import ru.rutmiit.utils.importing.ImportRow;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт сотрудников.
+ * <p>
+ * Строки читаются из потока пачками по {@code app.import.employees.chunk-size}.
+ * Пачка проверяется параллельно, компании разрешаются по карте «название → id»,
+ * загруженной один раз на импорт, а корректные строки вставляются одним JDBC-батчем
+ * в отдельной транзакции вместе с изменением счётчиков компаний. Ошибка вставки
+ * откатывает только свою пачку.
+ * В памяти одновременно находится не больше одной пачки.
+ */
+@Slf4j
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final String AGGREGATES_SQL = "UPDATE companies SET employee_count = employee_count + ?, " +
+            "total_salary = total_salary + ? WHERE id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO employees " +
+            "(id, first_name, last_name, full_name, education_level, job_title, birth_date, salary, " +
+            "company_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CompanyRepository companyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final CacheInvalidator cacheInvalidator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public EmployeeImportServiceImpl(CompanyRepository companyRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     Validator validator,
+                                     CacheInvalidator cacheInvalidator,
+                                     @Value("${app.import.employees.chunk-size}") int chunkSize,
+                                     @Value("${app.import.employees.max-reported-errors}") int maxReportedErrors) {
+        this.companyRepository = companyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.cacheInvalidator = cacheInvalidator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        log.info("EmployeeImportServiceImpl инициализирован, размер пачки: {}", chunkSize);
+    }
+
+    @Override
+    public EmployeeImportReportDto importEmployees(EmployeeRowSource rows) {
+        long started = System.nanoTime();
+        Map<String, UUID> companyIds = companyRepository.findAllIds().stream()
+                .collect(Collectors.toMap(CompanyRepository.CompanyIdView::getName,
+                        CompanyRepository.CompanyIdView::getId));
+        log.info("Начат импорт сотрудников, компаний в справочнике: {}", companyIds.size());
+
+        EmployeeImportReportDto report = new EmployeeImportReportDto();
+        Set<String> touchedCompanies = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (rows) {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, companyIds, report, touchedCompanies);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Импорт сотрудников прерван ошибкой формата: {}", ex.getMessage());
+            report.setError(ex.getMessage());
+        }
+        // Строки, прочитанные до конца файла или до ошибки формата, тоже сохраняются
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, companyIds, report, touchedCompanies);
+        }
+
+        if (report.getImported() > 0) {
+            cacheInvalidator.employeesImported(touchedCompanies);
+        }
+        report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.info("Импорт сотрудников завершён: строк {}, добавлено {}, отклонено {}, {} мс",
+                report.getTotalRows(), report.getImported(), report.getRejected(), report.getDurationMs());
+        return report;
+    }
+
+    private void importChunk(List<ImportRow> rows, Map<String, UUID> companyIds, EmployeeImportReportDto report,
+                             Set<String> touchedCompanies) {
+        EmployeeImportReportDto.Chunk chunk = new EmployeeImportReportDto.Chunk();
+        chunk.setNumber(report.getChunks().size() + 1);
+        chunk.setFirstRow(rows.get(0).rowNumber());
+        chunk.setLastRow(rows.get(rows.size() - 1).rowNumber());
+
+        // Проверка не обращается к БД, поэтому строки пачки проверяются параллельно
+        List<CheckedRow> checked = rows.parallelStream()
+                .map(row -> check(row, companyIds))
+                .toList();
+
+        // Отчёт ограничен по числу ошибок, счётчики отклонённых строк остаются точными
+        int reportedErrors = report.getChunks().stream().mapToInt(previous -> previous.getErrors().size()).sum();
+        List<CheckedRow> valid = new ArrayList<>(checked.size());
+        for (CheckedRow row : checked) {
+            if (row.error() == null) {
+                valid.add(row);
+            } else if (reportedErrors++ < maxReportedErrors) {
+                chunk.getErrors().add(new EmployeeImportReportDto.RowError(row.source().rowNumber(), row.error()));
+            }
+        }
+        chunk.setRejected(checked.size() - valid.size());
+
+        if (!valid.isEmpty()) {
+            try {
+                insert(valid);
+                chunk.setImported(valid.size());
+                valid.forEach(row -> touchedCompanies.add(row.source().employee().getCompanyName()));
+            } catch (DataAccessException ex) {
+                String reason = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+                log.warn("Пачка {} (строки {}-{}) не сохранена: {}",
+                        chunk.getNumber(), chunk.getFirstRow(), chunk.getLastRow(), reason);
+                chunk.setFailure(reason);
+                chunk.setRejected(checked.size());
+            }
+        }
+
+        report.getChunks().add(chunk);
+        report.setTotalRows(report.getTotalRows() + rows.size());
+        report.setImported(report.getImported() + chunk.getImported());
+        report.setRejected(report.getRejected() + chunk.getRejected());
+        log.debug("Пачка {} (строки {}-{}): добавлено {}, отклонено {}",
+                chunk.getNumber(), chunk.getFirstRow(), chunk.getLastRow(), chunk.getImported(), chunk.getRejected());
+    }
+
+    private CheckedRow check(ImportRow row, Map<String, UUID> companyIds) {
+        if (row.error() != null) {
+            return new CheckedRow(row, null, row.error());
+        }
+        AddEmployeeDto employee = row.employee();
+        String violations = validator.validate(employee).stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(" "));
+        if (!violations.isEmpty()) {
+            return new CheckedRow(row, null, violations);
+        }
+        UUID companyId = companyIds.get(employee.getCompanyName());
+        if (companyId == null) {
+            return new CheckedRow(row, null, "Компания с именем '" + employee.getCompanyName() + "' не найдена");
+        }
+        return new CheckedRow(row, companyId, null);
+    }
+
+    /**
+     * Вставка пачки и изменение счётчиков её компаний в одной транзакции.
+     */
+    private void insert(List<CheckedRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Компании обновляются в порядке id, чтобы параллельные импорты не взаимоблокировались
+        Map<UUID, double[]> aggregates = new TreeMap<>();
+        for (CheckedRow row : rows) {
+            double[] aggregate = aggregates.computeIfAbsent(row.companyId(), id -> new double[2]);
+            aggregate[0]++;
+            aggregate[1] += row.source().employee().getSalary();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                AddEmployeeDto employee = row.source().employee();
+                ps.setObject(1, UuidV7Generator.next());
+                ps.setString(2, employee.getFirstName());
+                ps.setString(3, employee.getLastName());
+                ps.setString(4, employee.getFirstName() + " " + employee.getLastName());
+                ps.setString(5, employee.getEducationLevel().name());
+                ps.setString(6, employee.getJobTitle());
+                ps.setObject(7, employee.getBirthDate());
+                ps.setDouble(8, employee.getSalary());
+                ps.setObject(9, row.companyId());
+                ps.setTimestamp(10, now);
+                ps.setTimestamp(11, now);
+            });
+            jdbcTemplate.batchUpdate(AGGREGATES_SQL, aggregates.entrySet(), aggregates.size(), (ps, aggregate) -> {
+                ps.setInt(1, (int) aggregate.getValue()[0]);
+                ps.setDouble(2, aggregate.getValue()[1]);
+                ps.setObject(3, aggregate.getKey());
+            });
+        });
+    }
+
+    private record CheckedRow(ImportRow source, UUID companyId, String error) {
+    }
+}
@@ -0,0 +1,9 @@
+package ru.rutmiit.services;
+
+import ru.rutmiit.dto.EmployeeTransferReportDto;
+
+import java.util.Collection;
+
+public interface EmployeeTransferService {
+    EmployeeTransferReportDto transferEmployees(Collection<String> employeeFullNames, String newCompanyName);
+}
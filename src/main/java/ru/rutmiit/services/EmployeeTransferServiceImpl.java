@@ -0,0 +1,166 @@
+package ru.rutmiit.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.dto.EmployeeTransferReportDto;
+import ru.rutmiit.models.exceptions.CompanyNotFoundException;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Массовый перевод сотрудников в другую компанию.
+ * <p>
+ * Все сотрудники переводятся одним UPDATE в одной транзакции: запрос блокирует найденные
+ * по полному имени строки, меняет компанию тем, кто работает не в целевой, и возвращает
+ * прежнюю компанию каждого. Счётчики компаний затем меняются одним батчем в порядке id,
+ * а кэш сбрасывается один раз после фиксации — для списка сотрудников и карточек
+ * затронутых компаний.
+ */
+@Slf4j
+@Service
+public class EmployeeTransferServiceImpl implements EmployeeTransferService {
+
+    private static final String FIND_COMPANY_SQL = "SELECT id FROM companies WHERE name = ?";
+
+    private static final String TRANSFER_SQL = """
+            WITH found AS (
+                SELECT id, full_name, salary, company_id FROM employees
+                WHERE full_name = ANY(?)
+                FOR UPDATE
+            ), moved AS (
+                UPDATE employees e SET company_id = ?, updated_at = ?
+                FROM found f
+                WHERE e.id = f.id AND f.company_id IS DISTINCT FROM ?
+                RETURNING e.id
+            )
+            SELECT f.full_name, f.salary, f.company_id, c.name AS company_name, m.id IS NOT NULL AS moved
+            FROM found f
+            LEFT JOIN moved m ON m.id = f.id
+            LEFT JOIN companies c ON c.id = f.company_id
+            """;
+
+    private static final String AGGREGATES_SQL = "UPDATE companies SET employee_count = employee_count + ?, " +
+            "total_salary = total_salary + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final int maxBatch;
+
+    public EmployeeTransferServiceImpl(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       CacheInvalidator cacheInvalidator,
+                                       @Value("${app.employee.transfer.max-batch}") int maxBatch) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidator = cacheInvalidator;
+        this.maxBatch = maxBatch;
+        log.info("EmployeeTransferServiceImpl инициализирован, не больше {} сотрудников за раз", maxBatch);
+    }
+
+    @Override
+    public EmployeeTransferReportDto transferEmployees(Collection<String> employeeFullNames, String newCompanyName) {
+        Set<String> names = new LinkedHashSet<>(employeeFullNames);
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Укажите хотя бы одного сотрудника");
+        }
+        if (names.size() > maxBatch) {
+            throw new IllegalArgumentException("За один раз можно перевести не больше " + maxBatch + " сотрудников");
+        }
+
+        long started = System.nanoTime();
+        EmployeeTransferReportDto report = transactionTemplate.execute(status -> transfer(names, newCompanyName));
+        report.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        log.info("В компанию {} переведено сотрудников: {} из {}, {} мс", newCompanyName,
+                report.getTransferred(), names.size(), report.getDurationMs());
+        return report;
+    }
+
+    private EmployeeTransferReportDto transfer(Set<String> names, String newCompanyName) {
+        List<UUID> found = jdbcTemplate.queryForList(FIND_COMPANY_SQL, UUID.class, newCompanyName);
+        if (found.isEmpty()) {
+            log.warn("Компания не найдена: {}", newCompanyName);
+            throw new CompanyNotFoundException("Компания с именем '" + newCompanyName + "' не найдена");
+        }
+        UUID companyId = found.get(0);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        Map<String, List<EmployeeTransferReportDto.Entry>> byName = new LinkedHashMap<>();
+        names.forEach(name -> byName.put(name, new ArrayList<>()));
+        // Изменения счётчиков по id компании; TreeMap задаёт одинаковый порядок блокировок
+        Map<UUID, double[]> aggregates = new TreeMap<>();
+        Set<String> touchedCompanies = new LinkedHashSet<>();
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TRANSFER_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", names.toArray()));
+            ps.setObject(2, companyId);
+            ps.setTimestamp(3, now);
+            ps.setObject(4, companyId);
+            return ps;
+        }, rs -> {
+            EmployeeTransferReportDto.Entry entry = new EmployeeTransferReportDto.Entry();
+            entry.setFullName(rs.getString("full_name"));
+            entry.setPreviousCompanyName(rs.getString("company_name"));
+            entry.setTransferred(rs.getBoolean("moved"));
+            byName.get(entry.getFullName()).add(entry);
+            if (!entry.isTransferred()) {
+                entry.setReason("Уже работает в этой компании");
+                return;
+            }
+            double salary = rs.getDouble("salary");
+            UUID previousCompanyId = rs.getObject("company_id", UUID.class);
+            if (previousCompanyId != null) {
+                adjust(aggregates, previousCompanyId, -1, -salary);
+                touchedCompanies.add(entry.getPreviousCompanyName());
+            }
+            adjust(aggregates, companyId, 1, salary);
+        });
+
+        EmployeeTransferReportDto report = new EmployeeTransferReportDto();
+        report.setCompanyName(newCompanyName);
+        byName.forEach((name, entries) -> {
+            if (entries.isEmpty()) {
+                EmployeeTransferReportDto.Entry entry = new EmployeeTransferReportDto.Entry();
+                entry.setFullName(name);
+                entry.setReason("Сотрудник не найден");
+                entries.add(entry);
+            }
+            report.getEmployees().addAll(entries);
+        });
+        report.setTransferred(report.getEmployees().stream().filter(EmployeeTransferReportDto.Entry::isTransferred).count());
+
+        if (report.getTransferred() > 0) {
+            jdbcTemplate.batchUpdate(AGGREGATES_SQL, aggregates.entrySet(), aggregates.size(), (ps, aggregate) -> {
+                ps.setInt(1, (int) aggregate.getValue()[0]);
+                ps.setDouble(2, aggregate.getValue()[1]);
+                ps.setObject(3, aggregate.getKey());
+            });
+            touchedCompanies.add(newCompanyName);
+            cacheInvalidator.employeesChanged(touchedCompanies.toArray(String[]::new));
+        }
+        return report;
+    }
+
+    private static void adjust(Map<UUID, double[]> aggregates, UUID companyId, int count, double salary) {
+        double[] aggregate = aggregates.computeIfAbsent(companyId, id -> new double[2]);
+        aggregate[0] += count;
+        aggregate[1] += salary;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.rutmiit.services;
 
 import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.EmployeeFilterDto;
+import ru.rutmiit.dto.EmployeeKeysetPageDto;
 import ru.rutmiit.dto.ShowDetailedEmployeeInfoDto;
 import ru.rutmiit.dto.ShowEmployeeInfoDto;
 
@@ -11,9 +13,11 @@ public interface EmployeeService {
 
     List<ShowEmployeeInfoDto> allEmployees();
 
+    EmployeeKeysetPageDto scrollEmployees(EmployeeFilterDto filter, String cursor, int size, String sortBy);
+
     ShowDetailedEmployeeInfoDto employeeInfo(String employeeFullName);
 
     void fireEmployee(String employeeFullName);
-    
+
     void transferEmployee(String employeeFullName, String newCompanyName);
 }
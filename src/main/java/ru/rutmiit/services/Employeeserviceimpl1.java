@@ -1,12 +1,16 @@
 package ru.rutmiit.services;
 
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.EmployeeFilterDto;
+import ru.rutmiit.dto.EmployeeKeysetPageDto;
 import ru.rutmiit.dto.ShowDetailedEmployeeInfoDto;
 import ru.rutmiit.dto.ShowEmployeeInfoDto;
 import ru.rutmiit.models.entities.Company;
@@ -15,89 +19,156 @@ import ru.rutmiit.models.exceptions.CompanyNotFoundException;
 import ru.rutmiit.models.exceptions.EmployeeNotFoundException;
 import ru.rutmiit.repositories.CompanyRepository;
 import ru.rutmiit.repositories.EmployeeRepository;
+import ru.rutmiit.repositories.EmployeeSpecifications;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+import ru.rutmiit.utils.cache.NegativeLookupCache;
+import ru.rutmiit.utils.mapping.EmployeeMapper;
+import ru.rutmiit.utils.pagination.KeysetCursors;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class EmployeeServiceImpl implements EmployeeService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> KEYSET_SORT_COLUMNS = Set.of("lastName", "salary", "birthDate");
+
     private final EmployeeRepository employeeRepository;
     private final CompanyRepository companyRepository;
-    private final ModelMapper mapper;
+    private final EmployeeMapper mapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final NegativeLookupCache negativeLookups;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository, CompanyRepository companyRepository, ModelMapper mapper) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, CompanyRepository companyRepository,
+                               EmployeeMapper mapper, CacheInvalidator cacheInvalidator,
+                               NegativeLookupCache negativeLookups) {
         this.employeeRepository = employeeRepository;
         this.companyRepository = companyRepository;
         this.mapper = mapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.negativeLookups = negativeLookups;
         log.info("EmployeeServiceImpl инициализирован");
     }
 
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "employees", allEntries = true)
     public void addEmployee(AddEmployeeDto employeeDTO) {
         log.debug("Добавление нового сотрудника: {} {}", employeeDTO.getFirstName(), employeeDTO.getLastName());
 
-        Employee employee = mapper.map(employeeDTO, Employee.class);
-        employee.setCompany(companyRepository.findByName(employeeDTO.getCompanyName()).orElse(null));
+        Employee employee = mapper.toEntity(employeeDTO);
+        Company company = companyRepository.findByName(employeeDTO.getCompanyName()).orElse(null);
+        employee.setCompany(company);
 
         employeeRepository.saveAndFlush(employee);
+        if (company != null) {
+            companyRepository.adjustAggregates(company.getId(), 1, employee.getSalary());
+        }
+        cacheInvalidator.employeeAdded(employeeDTO.getFirstName() + " " + employeeDTO.getLastName(),
+                company != null ? company.getName() : null);
         log.info("Сотрудник успешно добавлен: {} {}", employeeDTO.getFirstName(), employeeDTO.getLastName());
     }
 
     @Override
-    @Cacheable(value = "employees", key = "'all'")
+    @Cacheable(value = "employees", key = "'all'", sync = true)
     public List<ShowEmployeeInfoDto> allEmployees() {
         log.debug("Получение списка всех сотрудников");
-        List<ShowEmployeeInfoDto> employees = employeeRepository.findAll().stream()
-                .map(employee -> mapper.map(employee, ShowEmployeeInfoDto.class))
-                .collect(Collectors.toList());
+        List<ShowEmployeeInfoDto> employees = employeeRepository.findAllInfo();
         log.debug("Найдено сотрудников: {}", employees.size());
         return employees;
     }
 
+    /**
+     * Страница сотрудников по фильтру, листаемая курсором, как список компаний:
+     * выбирается не больше {@code size + 1} строк по индексу сортировки.
+     */
+    @Override
+    @Cacheable(value = "employeePages", sync = true,
+            key = "'keyset:' + #filter.cacheKey() + ':' + #sortBy + ':' + #size + ':' + (#cursor ?: 'first')"
+                    + " + ':v' + @cacheNamespaces.version('employees')")
+    public EmployeeKeysetPageDto scrollEmployees(EmployeeFilterDto filter, String cursor, int size, String sortBy) {
+        log.debug("Получение сотрудников по курсору: {}, размер {}, сортировка {}, фильтр {}",
+                cursor, size, sortBy, filter.cacheKey());
+        if (!KEYSET_SORT_COLUMNS.contains(sortBy)) {
+            throw new IllegalArgumentException("Недопустимое поле сортировки: " + sortBy);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        if (filter.getMinSalary() != null && filter.getMaxSalary() != null
+                && filter.getMinSalary() > filter.getMaxSalary()) {
+            throw new IllegalArgumentException("Минимальная зарплата больше максимальной");
+        }
+        Sort sort = Sort.by(sortBy).ascending().and(Sort.by("id").ascending());
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null) {
+            position = KeysetCursors.decode(cursor);
+            if (!position.getKeys().keySet().equals(Set.of(sortBy, "id"))) {
+                throw new IllegalArgumentException("Курсор страницы не соответствует сортировке");
+            }
+        }
+
+        KeysetScrollPosition start = position;
+        Window<Employee> window = employeeRepository.findBy(EmployeeSpecifications.matching(filter),
+                query -> query.sortBy(sort).limit(size).scroll(start));
+        List<ShowEmployeeInfoDto> employees = window.stream()
+                .map(mapper::toInfo)
+                .collect(Collectors.toList());
+        if (employees.isEmpty()) {
+            return new EmployeeKeysetPageDto(employees, null, null);
+        }
+
+        KeysetScrollPosition first = (KeysetScrollPosition) window.positionAt(0);
+        KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(employees.size() - 1);
+        // При движении назад hasNext означает, что есть записи перед текущей страницей
+        boolean hasNext = position.scrollsForward() ? window.hasNext() : cursor != null;
+        boolean hasPrev = position.scrollsForward() ? cursor != null : window.hasNext();
+        return new EmployeeKeysetPageDto(employees,
+                hasNext ? KeysetCursors.encode(ScrollPosition.forward(last.getKeys())) : null,
+                hasPrev ? KeysetCursors.encode(ScrollPosition.backward(first.getKeys())) : null);
+    }
+
     @Override
     public ShowDetailedEmployeeInfoDto employeeInfo(String employeeFullName) {
         log.debug("Получение информации о сотруднике: {}", employeeFullName);
-        Employee employee = employeeRepository.findEmployeeByFullName(employeeFullName);
+        Employee employee = findByFullName(employeeFullName, false);
 
         if (employee == null) {
             log.warn("Сотрудник не найден: {}", employeeFullName);
             throw new EmployeeNotFoundException("Сотрудник с именем '" + employeeFullName + "' не найден");
         }
 
-        ShowDetailedEmployeeInfoDto dto = mapper.map(employee, ShowDetailedEmployeeInfoDto.class);
-        if (employee.getCompany() != null) {
-            dto.setCompanyName(employee.getCompany().getName());
-        }
-        return dto;
+        return mapper.toDetailedInfo(employee);
     }
 
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "employees", allEntries = true)
     public void fireEmployee(String employeeFullName) {
         log.debug("Увольнение сотрудника: {}", employeeFullName);
 
-        Employee employee = employeeRepository.findEmployeeByFullName(employeeFullName);
+        Employee employee = findByFullName(employeeFullName, true);
         if (employee == null) {
             log.warn("Попытка уволить несуществующего сотрудника: {}", employeeFullName);
             throw new EmployeeNotFoundException("Сотрудник с именем '" + employeeFullName + "' не найден");
         }
 
-        employeeRepository.deleteEmployeeByFullName(employeeFullName);
+        Company company = employee.getCompany();
+        employeeRepository.delete(employee);
+        if (company != null) {
+            companyRepository.adjustAggregates(company.getId(), -1, -employee.getSalary());
+        }
+        cacheInvalidator.employeesChanged(company != null ? company.getName() : null);
         log.info("Сотрудник уволен: {}", employeeFullName);
     }
 
     @Override
     @Transactional
-    @CacheEvict(cacheNames = "employees", allEntries = true)
     public void transferEmployee(String employeeFullName, String newCompanyName) {
         log.debug("Перевод сотрудника {} в компанию {}", employeeFullName, newCompanyName);
 
-        Employee employee = employeeRepository.findEmployeeByFullName(employeeFullName);
+        Employee employee = findByFullName(employeeFullName, true);
         if (employee == null) {
             log.warn("Сотрудник не найден: {}", employeeFullName);
             throw new EmployeeNotFoundException("Сотрудник с именем '" + employeeFullName + "' не найден");
@@ -109,10 +180,35 @@ public class EmployeeServiceImpl implements EmployeeService {
                     return new CompanyNotFoundException("Компания с именем '" + newCompanyName + "' не найдена");
                 });
 
-        String oldCompanyName = employee.getCompany() != null ? employee.getCompany().getName() : "Нет компании";
+        Company oldCompany = employee.getCompany();
+        String oldCompanyName = oldCompany != null ? oldCompany.getName() : "Нет компании";
         employee.setCompany(newCompany);
         employeeRepository.save(employee);
+        if (oldCompany == null || !oldCompany.getId().equals(newCompany.getId())) {
+            if (oldCompany != null) {
+                companyRepository.adjustAggregates(oldCompany.getId(), -1, -employee.getSalary());
+            }
+            companyRepository.adjustAggregates(newCompany.getId(), 1, employee.getSalary());
+        }
+        cacheInvalidator.employeesChanged(oldCompany != null ? oldCompany.getName() : null, newCompanyName);
 
         log.info("Сотрудник {} переведен из '{}' в '{}'", employeeFullName, oldCompanyName, newCompanyName);
     }
+
+    /**
+     * Поиск по полному имени с учётом кэша отрицательных результатов.
+     * Для изменения сотрудника ({@code forUpdate}) строка блокируется до конца транзакции.
+     */
+    private Employee findByFullName(String employeeFullName, boolean forUpdate) {
+        if (negativeLookups.isKnownMissing(NegativeLookupCache.EMPLOYEE, employeeFullName)) {
+            return null;
+        }
+        Employee employee = forUpdate
+                ? employeeRepository.findEmployeeForUpdateByFullName(employeeFullName)
+                : employeeRepository.findEmployeeByFullName(employeeFullName);
+        if (employee == null) {
+            negativeLookups.recordMissing(NegativeLookupCache.EMPLOYEE, employeeFullName);
+        }
+        return employee;
+    }
 }
@@ -0,0 +1,12 @@
+package ru.rutmiit.services;
+
+import ru.rutmiit.utils.exporting.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    long exportEmployees(ExportFormat format, OutputStream out) throws IOException;
+
+    long exportCompanies(ExportFormat format, OutputStream out) throws IOException;
+}
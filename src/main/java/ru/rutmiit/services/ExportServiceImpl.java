@@ -0,0 +1,97 @@
+package ru.rutmiit.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.dto.CompanyExportDto;
+import ru.rutmiit.dto.EmployeeExportDto;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.repositories.EmployeeRepository;
+import ru.rutmiit.utils.exporting.ExportColumn;
+import ru.rutmiit.utils.exporting.ExportFormat;
+import ru.rutmiit.utils.exporting.ExportWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Полная выгрузка сотрудников и компаний.
+ * <p>
+ * Строки читаются курсором PostgreSQL внутри read-only транзакции (без неё драйвер
+ * загружает весь результат сразу) и пишутся в поток по одной. Проекции не попадают
+ * в контекст персистентности, поэтому память не растёт с объёмом таблицы.
+ */
+@Slf4j
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<ExportColumn<EmployeeExportDto>> EMPLOYEE_COLUMNS = List.of(
+            new ExportColumn<>("firstName", EmployeeExportDto::getFirstName),
+            new ExportColumn<>("lastName", EmployeeExportDto::getLastName),
+            new ExportColumn<>("educationLevel", EmployeeExportDto::getEducationLevel),
+            new ExportColumn<>("companyName", EmployeeExportDto::getCompanyName),
+            new ExportColumn<>("jobTitle", EmployeeExportDto::getJobTitle),
+            new ExportColumn<>("birthDate", EmployeeExportDto::getBirthDate),
+            new ExportColumn<>("salary", EmployeeExportDto::getSalary));
+
+    private static final List<ExportColumn<CompanyExportDto>> COMPANY_COLUMNS = List.of(
+            new ExportColumn<>("name", CompanyExportDto::getName),
+            new ExportColumn<>("town", CompanyExportDto::getTown),
+            new ExportColumn<>("description", CompanyExportDto::getDescription),
+            new ExportColumn<>("budget", CompanyExportDto::getBudget));
+
+    private final EmployeeRepository employeeRepository;
+    private final CompanyRepository companyRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(EmployeeRepository employeeRepository,
+                             CompanyRepository companyRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.companyRepository = companyRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        log.info("ExportServiceImpl инициализирован");
+    }
+
+    @Override
+    public long exportEmployees(ExportFormat format, OutputStream out) throws IOException {
+        return export("сотрудников", format, out, EMPLOYEE_COLUMNS, employeeRepository::streamAllForExport);
+    }
+
+    @Override
+    public long exportCompanies(ExportFormat format, OutputStream out) throws IOException {
+        return export("компаний", format, out, COMPANY_COLUMNS, companyRepository::streamAllForExport);
+    }
+
+    private <T> long export(String what, ExportFormat format, OutputStream out,
+                            List<ExportColumn<T>> columns, Supplier<Stream<T>> rows) throws IOException {
+        long started = System.nanoTime();
+        log.debug("Начата выгрузка {} в формате {}", what, format);
+        try {
+            Long count = readOnlyTransaction.execute(status -> {
+                try (Stream<T> stream = rows.get(); ExportWriter<T> writer = ExportWriter.open(format, out, columns)) {
+                    long written = 0;
+                    for (T row : (Iterable<T>) stream::iterator) {
+                        writer.write(row);
+                        written++;
+                    }
+                    return written;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            log.info("Выгрузка {} завершена: {} строк, {} мс", what, count, (System.nanoTime() - started) / 1_000_000);
+            return count;
+        } catch (UncheckedIOException ex) {
+            // Обычно клиент закрыл соединение, не дочитав выгрузку
+            log.warn("Выгрузка {} прервана: {}", what, ex.getCause().getMessage());
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.rutmiit.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Точечная инвалидация кэша по зависимостям вместо сброса целых кэшей.
+ * <p>
+ * Каждый метод описывает, какие ключи затрагивает конкретное изменение данных.
+ * Страницы и результаты поиска не удаляются поштучно: для них увеличивается
+ * версия пространства ключей (см. {@link CacheNamespaces}).
+ * Внутри транзакции инвалидация откладывается до коммита, чтобы параллельный
+ * читатель не успел закэшировать старое состояние.
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+    public static final String COMPANIES_NAMESPACE = "companies";
+    public static final String EMPLOYEES_NAMESPACE = "employees";
+
+    private static final String COMPANIES = "companies";
+    private static final String COMPANY = "company";
+    private static final String EMPLOYEES = "employees";
+    private static final String ALL = "all";
+
+    private final CacheManager cacheManager;
+    private final CacheNamespaces cacheNamespaces;
+    private final NegativeLookupCache negativeLookups;
+
+    public CacheInvalidator(CacheManager cacheManager, CacheNamespaces cacheNamespaces,
+                            NegativeLookupCache negativeLookups) {
+        this.cacheManager = cacheManager;
+        this.cacheNamespaces = cacheNamespaces;
+        this.negativeLookups = negativeLookups;
+    }
+
+    /**
+     * Новая компания попадает в агрегированный список, страницы и результаты поиска
+     * и перестаёт быть отрицательным результатом поиска по имени.
+     */
+    public void companyAdded(String companyName) {
+        afterCommit(() -> {
+            evict(List.of(new CacheKey(COMPANIES, ALL)));
+            cacheNamespaces.bump(COMPANIES_NAMESPACE);
+            negativeLookups.forget(NegativeLookupCache.COMPANY, companyName);
+        });
+    }
+
+    /**
+     * Удаление компании затрагивает её карточку, список компаний, страницы, поиск
+     * и список сотрудников, в котором были её сотрудники.
+     */
+    public void companyRemoved(String companyName) {
+        companiesRemoved(List.of(companyName));
+    }
+
+    /**
+     * Массовое удаление: общие ключи и версия пространства меняются один раз на всю пачку.
+     */
+    public void companiesRemoved(Collection<String> companyNames) {
+        afterCommit(() -> {
+            List<CacheKey> keys = new ArrayList<>();
+            companyNames.forEach(name -> keys.add(new CacheKey(COMPANY, name)));
+            keys.add(new CacheKey(COMPANIES, ALL));
+            keys.add(new CacheKey(EMPLOYEES, ALL));
+            evict(keys);
+            cacheNamespaces.bump(COMPANIES_NAMESPACE);
+            cacheNamespaces.bump(EMPLOYEES_NAMESPACE);
+        });
+    }
+
+    /**
+     * Новый сотрудник попадает в список и его страницы и перестаёт быть отрицательным результатом поиска;
+     * у его компании меняются счётчики в карточке.
+     */
+    public void employeeAdded(String employeeFullName, String companyName) {
+        afterCommit(() -> {
+            evict(employeeKeys(List.of(companyName)));
+            cacheNamespaces.bump(EMPLOYEES_NAMESPACE);
+            negativeLookups.forget(NegativeLookupCache.EMPLOYEE, employeeFullName);
+        });
+    }
+
+    /**
+     * Увольнение или перевод сотрудника меняют список сотрудников, его страницы и счётчики
+     * в карточках затронутых компаний.
+     */
+    public void employeesChanged(String... companyNames) {
+        afterCommit(() -> {
+            evict(employeeKeys(Arrays.asList(companyNames)));
+            cacheNamespaces.bump(EMPLOYEES_NAMESPACE);
+        });
+    }
+
+    /**
+     * После массового импорта сбрасывается список сотрудников с его страницами, карточки затронутых компаний
+     * и все отрицательные результаты поиска сотрудников: по одному имени их рассылать слишком дорого.
+     */
+    public void employeesImported(Collection<String> companyNames) {
+        afterCommit(() -> {
+            evict(employeeKeys(companyNames));
+            cacheNamespaces.bump(EMPLOYEES_NAMESPACE);
+            negativeLookups.forgetAll(NegativeLookupCache.EMPLOYEE);
+        });
+    }
+
+    /**
+     * Сверка исправила счётчики компаний — их карточки устарели.
+     */
+    public void companyAggregatesChanged(Collection<String> companyNames) {
+        afterCommit(() -> evict(companyNames.stream().map(name -> new CacheKey(COMPANY, name)).toList()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void evict(List<CacheKey> keys) {
+        for (CacheKey key : keys) {
+            Cache cache = cacheManager.getCache(key.cacheName());
+            if (cache != null) {
+                cache.evict(key.key());
+                log.debug("Инвалидирован ключ {}::{}", key.cacheName(), key.key());
+            }
+        }
+    }
+
+    private static List<CacheKey> employeeKeys(Collection<String> companyNames) {
+        List<CacheKey> keys = new ArrayList<>();
+        keys.add(new CacheKey(EMPLOYEES, ALL));
+        for (String companyName : companyNames) {
+            if (companyName != null) {
+                keys.add(new CacheKey(COMPANY, companyName));
+            }
+        }
+        return keys;
+    }
+
+    private record CacheKey(String cacheName, Object key) {
+    }
+}
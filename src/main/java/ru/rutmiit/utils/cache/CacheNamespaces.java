@@ -0,0 +1,127 @@
+package ru.rutmiit.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Версии пространств имён ключей кэша.
+ * <p>
+ * Версия входит в ключ (например, {@code page:0:10:name: ASC:v7}), поэтому
+ * увеличение счётчика в Redis за O(1) делает недостижимыми все старые записи —
+ * без сканирования ключей. Старые записи истекают по TTL.
+ * Узлы держат версию локально и узнают о новой через pub/sub, а для страховки
+ * от потерянного сообщения перечитывают её не реже {@code refreshInterval}.
+ * Если Redis недоступен, используется последняя известная версия.
+ * <p>
+ * Увеличение, которое не удалось выполнить в Redis, не теряется: версия сразу растёт
+ * локально, а пространство запоминается, и увеличение с рассылкой повторяется при
+ * восстановлении связи или при очередном перечитывании версии. До этого остальные
+ * узлы продолжают видеть старую версию.
+ */
+@Slf4j
+public class CacheNamespaces implements MessageListener {
+
+    private static final String PREFIX = "cache:ns:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long refreshNanos;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ConcurrentMap<String, CachedVersion> versions = new ConcurrentHashMap<>();
+    private final Set<String> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    public CacheNamespaces(StringRedisTemplate redisTemplate, String channel, Duration refreshInterval,
+                           RedisCircuitBreaker circuitBreaker) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.circuitBreaker = circuitBreaker;
+        circuitBreaker.onRecovery(this::replayPendingBumps);
+    }
+
+    public long version(String namespace) {
+        CachedVersion cached = versions.get(namespace);
+        if (cached != null && System.nanoTime() - cached.readAt() < refreshNanos) {
+            return cached.version();
+        }
+        if (cached != null && pendingBumps.contains(namespace)) {
+            // Версия в Redis отстаёт от локальной — сначала досылаем увеличение
+            circuitBreaker.run(() -> replayBump(namespace),
+                    () -> versions.put(namespace, new CachedVersion(cached.version(), System.nanoTime())));
+            return versions.get(namespace).version();
+        }
+        String stored = circuitBreaker.execute(() -> redisTemplate.opsForValue().get(PREFIX + namespace),
+                () -> cached != null ? String.valueOf(cached.version()) : null);
+        long version = stored != null ? Long.parseLong(stored) : 0L;
+        versions.put(namespace, new CachedVersion(version, System.nanoTime()));
+        return version;
+    }
+
+    public void bump(String namespace) {
+        Long version = circuitBreaker.execute(() -> redisTemplate.opsForValue().increment(PREFIX + namespace),
+                () -> null);
+        if (version == null) {
+            CachedVersion local = versions.compute(namespace, (ns, current) ->
+                    new CachedVersion((current != null ? current.version() : 0L) + 1, System.nanoTime()));
+            pendingBumps.add(namespace);
+            log.warn("Не удалось увеличить версию пространства ключей {} в Redis: локальная версия {}, " +
+                    "увеличение будет повторено после восстановления связи", namespace, local.version());
+            return;
+        }
+        versions.put(namespace, new CachedVersion(version, System.nanoTime()));
+        // bump вызывается после коммита: сбой публикации не должен доходить до вызывающего,
+        // остальные узлы увидят версию при перечитывании не позже refreshInterval
+        circuitBreaker.run(() -> publish(namespace, version),
+                () -> log.warn("Не удалось разослать версию {} пространства ключей {}", version, namespace));
+        log.debug("Новая версия пространства ключей {}: {}", namespace, version);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length < 2) {
+            return;
+        }
+        long version = Long.parseLong(parts[1]);
+        versions.merge(parts[0], new CachedVersion(version, System.nanoTime()),
+                (current, received) -> received.version() >= current.version() ? received : current);
+    }
+
+    private void replayPendingBumps() {
+        int replayed = 0;
+        for (String namespace : Set.copyOf(pendingBumps)) {
+            replayBump(namespace);
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("После восстановления связи увеличены версии пространств ключей: {}", replayed);
+        }
+    }
+
+    /**
+     * Повторяет отложенное увеличение. Значение из Redis заменяет локальное, даже если
+     * оно меньше (например, Redis потерял данные): иначе узлы разошлись бы в версиях.
+     * Пространство остаётся отложенным, пока увеличение не разослано.
+     */
+    private void replayBump(String namespace) {
+        Long version = redisTemplate.opsForValue().increment(PREFIX + namespace);
+        versions.put(namespace, new CachedVersion(version, System.nanoTime()));
+        publish(namespace, version);
+        pendingBumps.remove(namespace);
+    }
+
+    private void publish(String namespace, long version) {
+        redisTemplate.convertAndSend(channel, namespace + "|" + version);
+    }
+
+    private record CachedVersion(long version, long readAt) {
+    }
+}
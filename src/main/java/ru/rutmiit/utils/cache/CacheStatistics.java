@@ -0,0 +1,199 @@
+package ru.rutmiit.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика кэшей: счётчики по семействам ключей и метрики Micrometer по кэшам.
+ * <p>
+ * Семейство — имя кэша плюс шаблон ключа: {@code companies::all},
+ * {@code company::*}, {@code companyPages::page:*}. Шаблон выделяется только по префиксам,
+ * которые задаёт сам код в {@code @Cacheable}: остальное в ключе приходит из запроса
+ * (например, название компании), и число семейств не должно от него зависеть.
+ * Метрики: {@code cache.requests} (тег outcome: local_hit, remote_hit, miss),
+ * {@code cache.load} — время загрузки при промахе (outcome: success, failure),
+ * {@code cache.value.size} — размер сериализованного значения в байтах (operation: read, write).
+ */
+public class CacheStatistics {
+
+    private static final Set<String> KEY_PREFIXES = Set.of("page", "keyset", "search");
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Counters> families = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CacheMeters> meters = new ConcurrentHashMap<>();
+    // Последний записанный размер значения по ключу, для отчёта о самых крупных ключах
+    private final com.github.benmanes.caffeine.cache.Cache<String, Integer> keySizes;
+
+    public CacheStatistics(MeterRegistry registry, long trackedKeySizes) {
+        this.registry = registry;
+        this.keySizes = Caffeine.newBuilder().maximumSize(trackedKeySizes).build();
+    }
+
+    public void recordLocalHit(String cacheName, Object key) {
+        counters(cacheName, key).localHits.increment();
+        meters(cacheName).localHits.increment();
+    }
+
+    public void recordRemoteHit(String cacheName, Object key) {
+        counters(cacheName, key).remoteHits.increment();
+        meters(cacheName).remoteHits.increment();
+    }
+
+    public void recordMiss(String cacheName, Object key) {
+        counters(cacheName, key).misses.increment();
+        meters(cacheName).misses.increment();
+    }
+
+    public void recordLoad(String cacheName, long nanos, boolean success) {
+        CacheMeters m = meters(cacheName);
+        (success ? m.loadSuccess : m.loadFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRead(String cacheName, int bytes) {
+        meters(cacheName).readSize.record(bytes);
+    }
+
+    public void recordWrite(String cacheName, String key, int bytes) {
+        meters(cacheName).writeSize.record(bytes);
+        keySizes.put(cacheName + "::" + key, bytes);
+    }
+
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        families.forEach((family, c) -> result.put(family,
+                new Snapshot(c.localHits.sum(), c.remoteHits.sum(), c.misses.sum())));
+        return result;
+    }
+
+    public Set<String> cacheNames() {
+        return Set.copyOf(meters.keySet());
+    }
+
+    public CacheSummary summary(String cacheName) {
+        CacheMeters m = meters.get(cacheName);
+        if (m == null) {
+            return new CacheSummary(cacheName, 0, 0, 0, 0, 0.0, 0.0, 0, 0.0, 0.0);
+        }
+        Timer loads = m.loadSuccess;
+        return new CacheSummary(cacheName,
+                (long) m.localHits.count(), (long) m.remoteHits.count(), (long) m.misses.count(),
+                loads.count() + m.loadFailure.count(), loads.mean(TimeUnit.MILLISECONDS), loads.max(TimeUnit.MILLISECONDS),
+                m.writeSize.count(), m.writeSize.mean(), m.writeSize.max());
+    }
+
+    public List<KeySize> largestKeys(String cacheName, int limit) {
+        String prefix = cacheName + "::";
+        return keySizes.asMap().entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(e -> new KeySize(e.getKey().substring(prefix.length()), e.getValue()))
+                .toList();
+    }
+
+    public static String familyOf(String cacheName, Object key) {
+        String k = String.valueOf(key);
+        if ("all".equals(k)) {
+            return cacheName + "::all";
+        }
+        int separator = k.indexOf(':');
+        if (separator > 0 && KEY_PREFIXES.contains(k.substring(0, separator))) {
+            return cacheName + "::" + k.substring(0, separator) + ":*";
+        }
+        return cacheName + "::*";
+    }
+
+    private Counters counters(String cacheName, Object key) {
+        return families.computeIfAbsent(familyOf(cacheName, key), f -> new Counters());
+    }
+
+    private CacheMeters meters(String cacheName) {
+        return meters.computeIfAbsent(cacheName, name -> new CacheMeters(registry, name));
+    }
+
+    private static final class Counters {
+        private final LongAdder localHits = new LongAdder();
+        private final LongAdder remoteHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+
+    private static final class CacheMeters {
+        private final Counter localHits;
+        private final Counter remoteHits;
+        private final Counter misses;
+        private final Timer loadSuccess;
+        private final Timer loadFailure;
+        private final DistributionSummary readSize;
+        private final DistributionSummary writeSize;
+
+        private CacheMeters(MeterRegistry registry, String cacheName) {
+            this.localHits = requests(registry, cacheName, "local_hit");
+            this.remoteHits = requests(registry, cacheName, "remote_hit");
+            this.misses = requests(registry, cacheName, "miss");
+            this.loadSuccess = load(registry, cacheName, "success");
+            this.loadFailure = load(registry, cacheName, "failure");
+            this.readSize = size(registry, cacheName, "read");
+            this.writeSize = size(registry, cacheName, "write");
+        }
+
+        private static Counter requests(MeterRegistry registry, String cacheName, String outcome) {
+            return Counter.builder("cache.requests")
+                    .description("Обращения к кэшу по результату")
+                    .tag("cache", cacheName)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+
+        private static Timer load(MeterRegistry registry, String cacheName, String outcome) {
+            return Timer.builder("cache.load")
+                    .description("Время загрузки значения при промахе")
+                    .tag("cache", cacheName)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private static DistributionSummary size(MeterRegistry registry, String cacheName, String operation) {
+            return DistributionSummary.builder("cache.value.size")
+                    .description("Размер сериализованного значения в Redis")
+                    .baseUnit("bytes")
+                    .tag("cache", cacheName)
+                    .tag("operation", operation)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(16.0)
+                    .maximumExpectedValue(4.0 * 1024 * 1024)
+                    .register(registry);
+        }
+    }
+
+    public record Snapshot(long localHits, long remoteHits, long misses) {
+    }
+
+    public record CacheSummary(String cache, long localHits, long remoteHits, long misses,
+                               long loads, double meanLoadMs, double maxLoadMs,
+                               long writes, double meanValueBytes, double maxValueBytes) {
+
+        public double getHitRatio() {
+            long total = localHits + remoteHits + misses;
+            return total == 0 ? 0.0 : (double) (localHits + remoteHits) / total;
+        }
+    }
+
+    public record KeySize(String key, int bytes) {
+    }
+}
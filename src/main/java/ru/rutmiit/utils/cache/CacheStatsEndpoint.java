@@ -0,0 +1,68 @@
+package ru.rutmiit.utils.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Эндпоинт {@code /actuator/cachestats}: сводка по каждому кэшу — доля попаданий,
+ * время загрузки, размеры значений, самые востребованные и самые крупные ключи.
+ * {@code /actuator/cachestats/{cache}} возвращает сводку по одному кэшу.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+
+    private static final int TOP_KEYS = 10;
+
+    private final CacheStatistics statistics;
+    private final HotKeyTracker hotKeyTracker;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final CacheManager cacheManager;
+
+    public CacheStatsEndpoint(CacheStatistics statistics,
+                              HotKeyTracker hotKeyTracker,
+                              RedisCircuitBreaker circuitBreaker,
+                              CacheManager cacheManager) {
+        this.statistics = statistics;
+        this.hotKeyTracker = hotKeyTracker;
+        this.circuitBreaker = circuitBreaker;
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Report report() {
+        TreeSet<String> names = new TreeSet<>(statistics.cacheNames());
+        names.addAll(cacheManager.getCacheNames());
+        List<CacheReport> caches = names.stream().map(this::cacheReport).toList();
+        return new Report(circuitBreaker.state().name(), caches, statistics.snapshot());
+    }
+
+    @ReadOperation
+    public CacheReport cache(@Selector String name) {
+        return cacheReport(name);
+    }
+
+    private CacheReport cacheReport(String name) {
+        // Рейтинг обращений хранится в Redis; при разомкнутой цепи отчёт строится без него
+        List<HotKeyTracker.RankedKey> topByTraffic = circuitBreaker.execute(
+                () -> hotKeyTracker.topKeysWithHits(name, TOP_KEYS), List::of);
+        return new CacheReport(statistics.summary(name), topByTraffic, statistics.largestKeys(name, TOP_KEYS));
+    }
+
+    public record Report(String redisCircuit,
+                         List<CacheReport> caches,
+                         Map<String, CacheStatistics.Snapshot> families) {
+    }
+
+    public record CacheReport(CacheStatistics.CacheSummary summary,
+                              List<HotKeyTracker.RankedKey> topKeysByTraffic,
+                              List<CacheStatistics.KeySize> topKeysBySize) {
+    }
+}
@@ -0,0 +1,36 @@
+package ru.rutmiit.utils.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Страница результатов, пригодная для хранения в кэше.
+ * {@link PageImpl} не имеет конструктора для Jackson, поэтому кэшируется этот подкласс.
+ * При чтении из JSON восстанавливаются номер и размер страницы, но не сортировка:
+ * она уже учтена в ключе кэша и порядке элементов.
+ */
+@JsonIgnoreProperties(value = "pageable", allowGetters = true, ignoreUnknown = true)
+public class CachedPage<T> extends PageImpl<T> {
+
+    public CachedPage(Page<T> page) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+    }
+
+    public CachedPage(List<T> content, Pageable pageable, long totalElements) {
+        super(content, pageable, totalElements);
+    }
+
+    @JsonCreator
+    public CachedPage(@JsonProperty("content") List<T> content,
+                      @JsonProperty("number") int number,
+                      @JsonProperty("size") int size,
+                      @JsonProperty("totalElements") long totalElements) {
+        super(content, size > 0 ? Pageable.ofSize(size).withPage(number) : Pageable.unpaged(), totalElements);
+    }
+}
@@ -0,0 +1,142 @@
+package ru.rutmiit.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Обёртка над кэшем Redis, пропускающая вызовы через {@link RedisCircuitBreaker}.
+ * <p>
+ * При сбое чтение считается промахом, а запись пропускается. Ключи, которые не удалось
+ * удалить или перезаписать, запоминаются и удаляются из Redis при восстановлении связи,
+ * чтобы после сбоя не отдавать устаревшие значения. Если таких ключей больше
+ * {@code maxPendingEvictions}, при восстановлении очищается весь кэш.
+ */
+@Slf4j
+public class CircuitBreakingCache implements Cache {
+
+    private final Cache delegate;
+    private final RedisCircuitBreaker breaker;
+    private final int maxPendingEvictions;
+    private final Set<Object> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private volatile boolean pendingClear;
+
+    public CircuitBreakingCache(Cache delegate, RedisCircuitBreaker breaker, int maxPendingEvictions) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.maxPendingEvictions = maxPendingEvictions;
+        breaker.onRecovery(this::replayPendingEvictions);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return breaker.execute(() -> delegate.get(key), () -> null);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return breaker.execute(() -> delegate.get(key, type), () -> null);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Загрузчик вызывается вне автомата, чтобы его ошибки не считались сбоями Redis
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            @SuppressWarnings("unchecked")
+            T value = (T) wrapper.get();
+            return value;
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        breaker.run(() -> delegate.put(key, value), () -> deferEviction(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return breaker.execute(() -> delegate.putIfAbsent(key, value), () -> {
+            deferEviction(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void evict(Object key) {
+        breaker.run(() -> delegate.evict(key), () -> deferEviction(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return breaker.execute(() -> delegate.evictIfPresent(key), () -> {
+            deferEviction(key);
+            return false;
+        });
+    }
+
+    @Override
+    public void clear() {
+        breaker.run(delegate::clear, () -> pendingClear = true);
+    }
+
+    @Override
+    public boolean invalidate() {
+        return breaker.execute(delegate::invalidate, () -> {
+            pendingClear = true;
+            return false;
+        });
+    }
+
+    private void deferEviction(Object key) {
+        if (pendingClear) {
+            return;
+        }
+        if (pendingEvictions.size() >= maxPendingEvictions) {
+            pendingClear = true;
+            pendingEvictions.clear();
+            return;
+        }
+        pendingEvictions.add(key);
+    }
+
+    private void replayPendingEvictions() {
+        if (pendingClear) {
+            pendingClear = false;
+            pendingEvictions.clear();
+            delegate.clear();
+            log.info("Кэш {} очищен в Redis после восстановления связи", getName());
+            return;
+        }
+        int replayed = 0;
+        for (Object key : Set.copyOf(pendingEvictions)) {
+            delegate.evict(key);
+            pendingEvictions.remove(key);
+            replayed++;
+        }
+        if (replayed > 0) {
+            log.info("Кэш {}: после восстановления связи удалено отложенных ключей: {}", getName(), replayed);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package ru.rutmiit.utils.cache;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import ru.rutmiit.dto.CompanyKeysetPageDto;
+import ru.rutmiit.dto.EmployeeKeysetPageDto;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedEmployeeInfoDto;
+import ru.rutmiit.dto.ShowEmployeeInfoDto;
+import ru.rutmiit.models.enums.EducationLevel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Компактный бинарный формат значений кэша для DTO из {@code ru.rutmiit.dto}.
+ * <p>
+ * Заголовок: магический байт, версия схемы, флаги (бит 0 — тело сжато deflate).
+ * Тело: тег типа и поля в фиксированном порядке, без имён классов и полей.
+ * Поддерживаются DTO, списки DTO, {@link CachedPage} со списком DTO и страницы по курсору.
+ * Значения других типов и старые записи без магического байта читаются и пишутся
+ * через JSON-сериализатор, переданный в конструктор.
+ */
+public class CompactCacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xB7;
+    // 2: в карточке компании добавлены счётчики сотрудников и фонда оплаты труда
+    // 3: добавлены страницы по курсору; узлы со старой схемой считают такие записи промахом
+    static final byte SCHEMA_VERSION = 3;
+    private static final byte FLAG_DEFLATE = 1;
+
+    private static final byte TAG_COMPANY = 1;
+    private static final byte TAG_DETAILED_COMPANY = 2;
+    private static final byte TAG_EMPLOYEE = 3;
+    private static final byte TAG_DETAILED_EMPLOYEE = 4;
+    private static final byte TAG_LIST = 10;
+    private static final byte TAG_PAGE = 11;
+    private static final byte TAG_COMPANY_KEYSET_PAGE = 12;
+    private static final byte TAG_EMPLOYEE_KEYSET_PAGE = 13;
+
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+
+    public CompactCacheValueSerializer(RedisSerializer<Object> fallback, int compressionThreshold) {
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || !isSupported(value)) {
+            return fallback.serialize(value);
+        }
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            writeValue(new DataOutputStream(body), value);
+            byte[] raw = body.toByteArray();
+
+            byte flags = 0;
+            if (raw.length >= compressionThreshold) {
+                byte[] compressed = deflate(raw);
+                if (compressed.length < raw.length) {
+                    raw = compressed;
+                    flags |= FLAG_DEFLATE;
+                }
+            }
+
+            byte[] result = new byte[raw.length + 3];
+            result[0] = MAGIC;
+            result[1] = SCHEMA_VERSION;
+            result[2] = flags;
+            System.arraycopy(raw, 0, result, 3, raw.length);
+            return result;
+        } catch (IOException ex) {
+            throw new SerializationException("Не удалось сериализовать значение кэша", ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < 3 || bytes[1] != SCHEMA_VERSION) {
+            // Запись другой версии схемы считаем промахом, а не ошибкой
+            return null;
+        }
+        try {
+            byte[] body = Arrays.copyOfRange(bytes, 3, bytes.length);
+            if ((bytes[2] & FLAG_DEFLATE) != 0) {
+                body = inflate(body);
+            }
+            return readValue(new DataInputStream(new ByteArrayInputStream(body)));
+        } catch (IOException | DataFormatException ex) {
+            throw new SerializationException("Не удалось прочитать значение кэша", ex);
+        }
+    }
+
+    private static boolean isSupported(Object value) {
+        if (value instanceof List<?> list) {
+            return list.stream().allMatch(e -> e != null && isSupported(e));
+        }
+        if (value instanceof CachedPage<?> page) {
+            return isSupported(page.getContent());
+        }
+        if (value instanceof CompanyKeysetPageDto page) {
+            return page.getCompanies() != null && isSupported(page.getCompanies());
+        }
+        if (value instanceof EmployeeKeysetPageDto page) {
+            return page.getEmployees() != null && isSupported(page.getEmployees());
+        }
+        return value instanceof ShowCompanyInfoDto
+                || value instanceof ShowDetailedCompanyInfoDto
+                || value instanceof ShowEmployeeInfoDto
+                || value instanceof ShowDetailedEmployeeInfoDto;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof List<?> list) {
+            out.writeByte(TAG_LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof CachedPage<?> page) {
+            out.writeByte(TAG_PAGE);
+            writeValue(out, page.getContent());
+            Pageable pageable = page.getPageable();
+            out.writeBoolean(pageable.isPaged());
+            if (pageable.isPaged()) {
+                out.writeInt(pageable.getPageNumber());
+                out.writeInt(pageable.getPageSize());
+                List<Sort.Order> orders = pageable.getSort().toList();
+                out.writeInt(orders.size());
+                for (Sort.Order order : orders) {
+                    writeString(out, order.getProperty());
+                    out.writeBoolean(order.isAscending());
+                }
+            }
+            out.writeLong(page.getTotalElements());
+        } else if (value instanceof CompanyKeysetPageDto page) {
+            out.writeByte(TAG_COMPANY_KEYSET_PAGE);
+            writeValue(out, page.getCompanies());
+            writeString(out, page.getNextCursor());
+            writeString(out, page.getPrevCursor());
+        } else if (value instanceof EmployeeKeysetPageDto page) {
+            out.writeByte(TAG_EMPLOYEE_KEYSET_PAGE);
+            writeValue(out, page.getEmployees());
+            writeString(out, page.getNextCursor());
+            writeString(out, page.getPrevCursor());
+        } else if (value instanceof ShowCompanyInfoDto c) {
+            out.writeByte(TAG_COMPANY);
+            writeString(out, c.getName());
+            writeString(out, c.getTown());
+            writeString(out, c.getDescription());
+        } else if (value instanceof ShowDetailedCompanyInfoDto c) {
+            out.writeByte(TAG_DETAILED_COMPANY);
+            writeString(out, c.getName());
+            writeString(out, c.getTown());
+            writeString(out, c.getDescription());
+            out.writeDouble(c.getBudget());
+            out.writeInt(c.getEmployeeCount());
+            out.writeDouble(c.getTotalSalary());
+            out.writeDouble(c.getAverageSalary());
+        } else if (value instanceof ShowEmployeeInfoDto e) {
+            out.writeByte(TAG_EMPLOYEE);
+            writeString(out, e.getFirstName());
+            writeString(out, e.getLastName());
+            writeString(out, e.getJobTitle());
+            writeDate(out, e.getBirthDate());
+        } else if (value instanceof ShowDetailedEmployeeInfoDto e) {
+            out.writeByte(TAG_DETAILED_EMPLOYEE);
+            writeString(out, e.getFirstName());
+            writeString(out, e.getLastName());
+            writeString(out, e.getEducationLevel() != null ? e.getEducationLevel().name() : null);
+            writeString(out, e.getJobTitle());
+            writeDate(out, e.getBirthDate());
+            writeNullableDouble(out, e.getSalary());
+            writeString(out, e.getCompanyName());
+        } else {
+            throw new IOException("Неподдерживаемый тип: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_LIST -> {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case TAG_PAGE -> {
+                List<?> content = (List<?>) readValue(in);
+                Pageable pageable = Pageable.unpaged();
+                if (in.readBoolean()) {
+                    int number = in.readInt();
+                    int size = in.readInt();
+                    int orderCount = in.readInt();
+                    List<Sort.Order> orders = new ArrayList<>(orderCount);
+                    for (int i = 0; i < orderCount; i++) {
+                        String property = readString(in);
+                        orders.add(in.readBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property));
+                    }
+                    pageable = PageRequest.of(number, size, Sort.by(orders));
+                }
+                return new CachedPage<>(content, pageable, in.readLong());
+            }
+            case TAG_COMPANY_KEYSET_PAGE -> {
+                @SuppressWarnings("unchecked")
+                List<ShowCompanyInfoDto> companies = (List<ShowCompanyInfoDto>) readValue(in);
+                return new CompanyKeysetPageDto(companies, readString(in), readString(in));
+            }
+            case TAG_EMPLOYEE_KEYSET_PAGE -> {
+                @SuppressWarnings("unchecked")
+                List<ShowEmployeeInfoDto> employees = (List<ShowEmployeeInfoDto>) readValue(in);
+                return new EmployeeKeysetPageDto(employees, readString(in), readString(in));
+            }
+            case TAG_COMPANY -> {
+                ShowCompanyInfoDto c = new ShowCompanyInfoDto();
+                c.setName(readString(in));
+                c.setTown(readString(in));
+                c.setDescription(readString(in));
+                return c;
+            }
+            case TAG_DETAILED_COMPANY -> {
+                ShowDetailedCompanyInfoDto c = new ShowDetailedCompanyInfoDto();
+                c.setName(readString(in));
+                c.setTown(readString(in));
+                c.setDescription(readString(in));
+                c.setBudget(in.readDouble());
+                c.setEmployeeCount(in.readInt());
+                c.setTotalSalary(in.readDouble());
+                c.setAverageSalary(in.readDouble());
+                return c;
+            }
+            case TAG_EMPLOYEE -> {
+                ShowEmployeeInfoDto e = new ShowEmployeeInfoDto();
+                e.setFirstName(readString(in));
+                e.setLastName(readString(in));
+                e.setJobTitle(readString(in));
+                e.setBirthDate(readDate(in));
+                return e;
+            }
+            case TAG_DETAILED_EMPLOYEE -> {
+                ShowDetailedEmployeeInfoDto e = new ShowDetailedEmployeeInfoDto();
+                e.setFirstName(readString(in));
+                e.setLastName(readString(in));
+                String educationLevel = readString(in);
+                e.setEducationLevel(educationLevel != null ? EducationLevel.valueOf(educationLevel) : null);
+                e.setJobTitle(readString(in));
+                e.setBirthDate(readDate(in));
+                e.setSalary(readNullableDouble(in));
+                e.setCompanyName(readString(in));
+                return e;
+            }
+            default -> throw new IOException("Неизвестный тег типа: " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+
+    private static void writeNullableDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readNullableDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Обрезанный поток deflate");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
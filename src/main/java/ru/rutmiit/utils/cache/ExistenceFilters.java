@@ -0,0 +1,189 @@
+package ru.rutmiit.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.repositories.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фильтры Блума существующих логинов, email и названий компаний для проверок уникальности.
+ * <p>
+ * Ответ {@code false} из {@link #mightContain} означает, что значения нет в БД на момент
+ * последней доставки изменений, и проверку уникальности можно не выполнять. Новые значения
+ * добавляются на всех узлах через pub/sub; фильтры периодически перестраиваются из БД,
+ * чтобы избавиться от удалённых значений.
+ * <p>
+ * Фильтру верим, только пока он построен не раньше {@code maxAge} назад и подписка с тех пор
+ * не прерывалась: при разомкнутой цепи Redis и после её восстановления (сообщения за время
+ * сбоя потеряны) ответ всегда {@code true} до следующего перестроения. Окно между коммитом
+ * на одном узле и доставкой сообщения на другой, как и незамеченный автоматом обрыв подписки,
+ * закрывает уникальный индекс в БД — контроллеры возвращают его нарушение как ошибку поля.
+ */
+@Slf4j
+@Component
+public class ExistenceFilters implements MessageListener {
+
+    public enum Kind {
+        USERNAME, EMAIL, COMPANY_NAME
+    }
+
+    private final UserRepository userRepository;
+    private final CompanyRepository companyRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final String channel;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long maxAgeNanos;
+    private final AtomicLong subscriptionBreaks = new AtomicLong();
+
+    private volatile Filters filters;
+    private volatile Map<Kind, BloomFilter> rebuilding;
+
+    public ExistenceFilters(UserRepository userRepository,
+                            CompanyRepository companyRepository,
+                            StringRedisTemplate redisTemplate,
+                            RedisCircuitBreaker circuitBreaker,
+                            @Value("${app.lookup.bloom.channel}") String channel,
+                            @Value("${app.lookup.bloom.expected-insertions}") long expectedInsertions,
+                            @Value("${app.lookup.bloom.false-positive-rate}") double falsePositiveRate,
+                            @Value("${app.lookup.bloom.max-age}") Duration maxAge) {
+        this.userRepository = userRepository;
+        this.companyRepository = companyRepository;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.channel = channel;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxAgeNanos = maxAge.toNanos();
+        // Сообщения, разосланные во время сбоя, до этого узла не дошли
+        circuitBreaker.onRecovery(subscriptionBreaks::incrementAndGet);
+    }
+
+    public boolean mightContain(Kind kind, String value) {
+        Filters current = filters;
+        return value == null || !isAuthoritative(current) || current.byKind().get(kind).mightContain(value);
+    }
+
+    private boolean isAuthoritative(Filters current) {
+        return current != null
+                && System.nanoTime() - current.builtAt() < maxAgeNanos
+                && current.subscriptionBreaks() == subscriptionBreaks.get()
+                && !circuitBreaker.isOpen();
+    }
+
+    /**
+     * Добавляет значение на этом узле и рассылает его остальным после коммита транзакции:
+     * перестроение, прочитавшее БД до коммита, не теряет значение, а откат ничего не добавляет.
+     */
+    public void add(Kind kind, String value) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addAndPublish(kind, value);
+                }
+            });
+        } else {
+            addAndPublish(kind, value);
+        }
+    }
+
+    private void addAndPublish(Kind kind, String value) {
+        addLocal(kind, value);
+        circuitBreaker.run(() -> redisTemplate.convertAndSend(channel, kind.name() + "|" + value),
+                () -> log.warn("Не удалось разослать значение фильтра {}", kind));
+    }
+
+    /**
+     * Строит фильтры после выполнения всех CommandLineRunner, включая начальные данные.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.lookup.bloom.rebuild-interval}",
+               initialDelayString = "${app.lookup.bloom.rebuild-interval}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        // Сбой, начавшийся после этой отметки, мог потерять значения, не попавшие в выборку
+        long breaks = subscriptionBreaks.get();
+        long builtAt = System.nanoTime();
+        try {
+            long users = userRepository.count();
+            long companies = companyRepository.count();
+            Map<Kind, BloomFilter> next = new EnumMap<>(Kind.class);
+            next.put(Kind.USERNAME, BloomFilter.create(Math.max(expectedInsertions, users * 2), falsePositiveRate));
+            next.put(Kind.EMAIL, BloomFilter.create(Math.max(expectedInsertions, users * 2), falsePositiveRate));
+            next.put(Kind.COMPANY_NAME, BloomFilter.create(Math.max(expectedInsertions, companies * 2), falsePositiveRate));
+            // Значения, добавленные во время загрузки, попадут и в новый набор
+            rebuilding = next;
+
+            putAll(next.get(Kind.USERNAME), userRepository.findAllUsernames());
+            putAll(next.get(Kind.EMAIL), userRepository.findAllEmails());
+            putAll(next.get(Kind.COMPANY_NAME), companyRepository.findAllNames());
+
+            filters = new Filters(next, builtAt, breaks);
+            log.info("Фильтры Блума построены за {} мс: пользователей {}, компаний {}",
+                    System.currentTimeMillis() - started, users, companies);
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось построить фильтры Блума: {}", ex.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length < 2) {
+            return;
+        }
+        try {
+            addLocal(Kind.valueOf(parts[0]), parts[1]);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Неизвестный тип фильтра в сообщении: {}", parts[0]);
+        }
+    }
+
+    private void addLocal(Kind kind, String value) {
+        if (value == null) {
+            return;
+        }
+        Filters current = filters;
+        if (current != null) {
+            current.byKind().get(kind).put(value);
+        }
+        Map<Kind, BloomFilter> next = rebuilding;
+        if (next != null) {
+            next.get(kind).put(value);
+        }
+    }
+
+    private static void putAll(BloomFilter filter, List<String> values) {
+        values.forEach(filter::put);
+    }
+
+    /**
+     * Построенные фильтры, время начала их загрузки из БД и число обрывов подписки на тот момент.
+     */
+    private record Filters(Map<Kind, BloomFilter> byKind, long builtAt, long subscriptionBreaks) {
+    }
+}
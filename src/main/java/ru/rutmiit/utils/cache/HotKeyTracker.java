@@ -0,0 +1,106 @@
+package ru.rutmiit.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Учёт популярности ключей кэша.
+ * <p>
+ * Обращения считаются локально и периодически сбрасываются в общий для всех узлов
+ * sorted set {@code cache:hot:<cacheName>}, поэтому рейтинг переживает перезапуск
+ * и доступен новому узлу для прогрева.
+ * <p>
+ * Команды Redis идут через {@link RedisCircuitBreaker}: пока цепь разомкнута, счётчики
+ * копятся локально и сбрасываются после восстановления связи, а рейтинг пуст.
+ */
+@Slf4j
+public class HotKeyTracker {
+
+    private static final String PREFIX = "cache:hot:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final int retainedKeys;
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> pending = new ConcurrentHashMap<>();
+
+    public HotKeyTracker(StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker, int retainedKeys) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.retainedKeys = retainedKeys;
+    }
+
+    public void record(String cacheName, String key) {
+        pending.computeIfAbsent(cacheName, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Переносит накопленные счётчики в Redis и обрезает рейтинг до {@code retainedKeys}.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.hot-keys.flush-interval}")
+    public void flush() {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        for (Map.Entry<String, ConcurrentMap<String, LongAdder>> cache : pending.entrySet()) {
+            String redisKey = PREFIX + cache.getKey();
+            ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+            // Каждая команда проходит через автомат отдельно: длинный сброс целиком
+            // не должен считаться одним медленным вызовом
+            for (String key : Set.copyOf(cache.getValue().keySet())) {
+                LongAdder counter = cache.getValue().remove(key);
+                if (counter == null) {
+                    continue;
+                }
+                long hits = counter.sum();
+                if (!call(() -> zset.incrementScore(redisKey, key, hits))) {
+                    // Счётчик возвращается и уйдёт в Redis со следующим сбросом
+                    cache.getValue().computeIfAbsent(key, k -> new LongAdder()).add(hits);
+                    log.warn("Рейтинг ключей кэша {} сохранён не полностью: Redis недоступен", cache.getKey());
+                    return;
+                }
+            }
+            if (!call(() -> zset.removeRange(redisKey, 0, -retainedKeys - 1L))) {
+                return;
+            }
+        }
+    }
+
+    public List<String> topKeys(String cacheName, int limit) {
+        Set<String> keys = circuitBreaker.execute(
+                () -> redisTemplate.opsForZSet().reverseRange(PREFIX + cacheName, 0, limit - 1L), () -> null);
+        return keys == null ? List.of() : List.copyOf(keys);
+    }
+
+    public List<RankedKey> topKeysWithHits(String cacheName, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> keys = circuitBreaker.execute(
+                () -> redisTemplate.opsForZSet().reverseRangeWithScores(PREFIX + cacheName, 0, limit - 1L),
+                () -> null);
+        if (keys == null) {
+            return List.of();
+        }
+        return keys.stream()
+                .map(t -> new RankedKey(t.getValue(), t.getScore() != null ? t.getScore().longValue() : 0L))
+                .toList();
+    }
+
+    private boolean call(Runnable command) {
+        return circuitBreaker.execute(() -> {
+            command.run();
+            return true;
+        }, () -> false);
+    }
+
+    public record RankedKey(String key, long hits) {
+    }
+}
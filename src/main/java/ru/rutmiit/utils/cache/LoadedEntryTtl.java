@@ -0,0 +1,43 @@
+package ru.rutmiit.utils.cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+
+/**
+ * TTL записей в Redis: значения, загруженные при промахе, живут {@code loadedTtl},
+ * остальные (например, из {@code @CachePut}) — {@code defaultTtl}.
+ * <p>
+ * Загрузка может разминуться с инвалидацией на другом узле: сообщение о сбросе
+ * приходит уже после записи, и устаревшее значение остаётся в Redis. Короткий TTL
+ * ограничивает, как долго оно там проживёт.
+ */
+public class LoadedEntryTtl implements RedisCacheWriter.TtlFunction {
+
+    private static final ThreadLocal<Boolean> LOADED = new ThreadLocal<>();
+
+    private final Duration defaultTtl;
+    private final Duration loadedTtl;
+
+    public LoadedEntryTtl(Duration defaultTtl, Duration loadedTtl) {
+        this.defaultTtl = defaultTtl;
+        this.loadedTtl = loadedTtl;
+    }
+
+    /**
+     * Выполняет запись загруженного значения: TTL вычисляется в том же потоке.
+     */
+    static void putLoaded(Runnable put) {
+        LOADED.set(Boolean.TRUE);
+        try {
+            put.run();
+        } finally {
+            LOADED.remove();
+        }
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        return Boolean.TRUE.equals(LOADED.get()) ? loadedTtl : defaultTtl;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.rutmiit.utils.cache;
+
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Обёртка над {@link RedisCacheWriter}, записывающая размеры прочитанных
+ * и записанных значений в {@link CacheStatistics}.
+ */
+public class MeasuringRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final CacheStatistics statistics;
+
+    public MeasuringRedisCacheWriter(RedisCacheWriter delegate, CacheStatistics statistics) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return read(name, delegate.get(name, key));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return read(name, delegate.get(name, key, ttl));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        return read(name, delegate.get(name, key, () -> write(name, key, valueLoader.get()), ttl, timeToIdleEnabled));
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl).thenApply(value -> read(name, value));
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, write(name, key, value), ttl);
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, write(name, key, value), ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        byte[] existing = delegate.putIfAbsent(name, key, value, ttl);
+        if (existing == null) {
+            write(name, key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new MeasuringRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), statistics);
+    }
+
+    @Override
+    public org.springframework.data.redis.cache.CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+
+    private byte[] read(String name, byte[] value) {
+        if (value != null) {
+            statistics.recordRead(name, value.length);
+        }
+        return value;
+    }
+
+    private byte[] write(String name, byte[] key, byte[] value) {
+        if (value != null) {
+            statistics.recordWrite(name, cacheKey(name, key), value.length);
+        }
+        return value;
+    }
+
+    // Ключ в Redis имеет вид "<cacheName>::<key>"
+    private static String cacheKey(String name, byte[] key) {
+        String redisKey = new String(key, StandardCharsets.UTF_8);
+        String prefix = name + "::";
+        return redisKey.startsWith(prefix) ? redisKey.substring(prefix.length()) : redisKey;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.rutmiit.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Кэш отрицательных результатов поиска компаний и сотрудников по имени.
+ * <p>
+ * Методы поиска бросают исключение вместо возврата {@code null}, поэтому
+ * {@code @Cacheable} промахи не запоминает. Здесь запоминается сам факт отсутствия
+ * на короткий TTL, чтобы повторные запросы несуществующих имён не шли в БД.
+ * При создании записи ключ сбрасывается на всех узлах через pub/sub;
+ * короткий TTL ограничивает гонку с параллельным чтением.
+ */
+@Slf4j
+@Component
+public class NegativeLookupCache implements MessageListener {
+
+    public static final String COMPANY = "company";
+    public static final String EMPLOYEE = "employee";
+
+    private static final String ALL = "*";
+
+    private final Cache<String, Boolean> missing;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    public NegativeLookupCache(StringRedisTemplate redisTemplate,
+                               @Value("${app.cache.negative.channel}") String channel,
+                               @Value("${app.cache.negative.ttl}") Duration ttl,
+                               @Value("${app.cache.negative.max-size}") long maxSize) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isKnownMissing(String type, String name) {
+        return missing.getIfPresent(key(type, name)) != null;
+    }
+
+    public void recordMissing(String type, String name) {
+        missing.put(key(type, name), Boolean.TRUE);
+    }
+
+    /**
+     * Сбрасывает отметку об отсутствии на этом и остальных узлах.
+     */
+    public void forget(String type, String name) {
+        String key = key(type, name);
+        missing.invalidate(key);
+        try {
+            redisTemplate.convertAndSend(channel, key);
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось разослать сброс отрицательного кэша {}: {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * Сбрасывает все отметки данного типа, например после массового импорта,
+     * когда рассылать сброс по каждому имени слишком дорого.
+     */
+    public void forgetAll(String type) {
+        String key = type + ":" + ALL;
+        invalidate(key);
+        try {
+            redisTemplate.convertAndSend(channel, key);
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось разослать сброс отрицательного кэша {}: {}", key, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void invalidate(String key) {
+        if (key.endsWith(":" + ALL)) {
+            String prefix = key.substring(0, key.length() - ALL.length());
+            missing.asMap().keySet().removeIf(candidate -> candidate.startsWith(prefix));
+        } else {
+            missing.invalidate(key);
+        }
+    }
+
+    private static String key(String type, String name) {
+        return type + ":" + name;
+    }
+}
@@ -0,0 +1,153 @@
+package ru.rutmiit.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.rutmiit.config.BeanConfiguration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Автомат защиты обращений к Redis.
+ * <p>
+ * После {@code failureThreshold} ошибок или медленных (дольше {@code slowCall}) вызовов
+ * подряд цепь размыкается: вызовы сразу получают запасной результат, а кэш работает
+ * только на L1 узла. Пока цепь разомкнута, фоновая проверка раз в
+ * {@code app.cache.breaker.probe-interval} пингует Redis и замыкает цепь, когда он
+ * снова отвечает быстро. Запросы пользователей в проверке не участвуют.
+ */
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN
+    }
+
+    private final RedisConnectionFactory connectionFactory;
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(RedisConnectionFactory connectionFactory,
+                               int failureThreshold,
+                               Duration slowCall,
+                               Duration openDuration) {
+        this.connectionFactory = connectionFactory;
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCall.toNanos();
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public boolean isOpen() {
+        return state == State.OPEN;
+    }
+
+    /**
+     * Выполняет обращение к Redis или, если цепь разомкнута либо вызов упал,
+     * возвращает результат {@code fallback}.
+     */
+    public <T> T execute(Supplier<T> call, Supplier<T> fallback) {
+        if (state == State.OPEN) {
+            return fallback.get();
+        }
+        long started = System.nanoTime();
+        try {
+            T result = call.get();
+            onSuccess(System.nanoTime() - started);
+            return result;
+        } catch (RuntimeException ex) {
+            onFailure(ex.getMessage());
+            return fallback.get();
+        }
+    }
+
+    public void run(Runnable call, Runnable fallback) {
+        execute(() -> {
+            call.run();
+            return null;
+        }, () -> {
+            fallback.run();
+            return null;
+        });
+    }
+
+    /**
+     * Регистрирует действие, выполняемое при замыкании цепи (например, досылка отложенных удалений).
+     */
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.breaker.probe-interval}",
+               scheduler = BeanConfiguration.HEALTH_CHECK_SCHEDULER)
+    public void probe() {
+        if (state != State.OPEN || System.nanoTime() - openedAt < openNanos) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (RuntimeException ex) {
+            openedAt = System.nanoTime();
+            log.debug("Redis всё ещё недоступен: {}", ex.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        if (elapsed >= slowCallNanos) {
+            openedAt = System.nanoTime();
+            log.debug("Redis отвечает медленно: {} мс", elapsed / 1_000_000);
+            return;
+        }
+        close();
+    }
+
+    private void onSuccess(long elapsedNanos) {
+        if (elapsedNanos >= slowCallNanos) {
+            onFailure("медленный ответ " + elapsedNanos / 1_000_000 + " мс");
+        } else {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private void onFailure(String reason) {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            trip(reason);
+        }
+    }
+
+    private synchronized void trip(String reason) {
+        if (state == State.OPEN) {
+            return;
+        }
+        openedAt = System.nanoTime();
+        state = State.OPEN;
+        log.warn("Цепь Redis разомкнута после {} сбоев подряд ({}), кэш работает только на L1",
+                consecutiveFailures.get(), reason);
+    }
+
+    private synchronized void close() {
+        consecutiveFailures.set(0);
+        state = State.CLOSED;
+        log.info("Redis снова доступен, цепь замкнута");
+        for (Runnable listener : recoveryListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                log.warn("Ошибка при восстановлении после сбоя Redis: {}", ex.getMessage());
+            }
+        }
+    }
+}
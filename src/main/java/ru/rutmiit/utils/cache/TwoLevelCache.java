@@ -0,0 +1,256 @@
+package ru.rutmiit.utils.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import ru.rutmiit.utils.datasource.PrimaryReads;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Двухуровневый кэш: локальный L1 в памяти процесса перед общим L2 в Redis.
+ * Любое изменение записи сбрасывает L1 на остальных узлах через {@link TwoLevelCacheManager}.
+ * <p>
+ * Загрузка при промахе ({@code @Cacheable(sync = true)}) выполняется одним потоком
+ * на ключ: остальные запросы ждут её результата, а если в L1 осталось устаревшее
+ * значение — сразу получают его, пока идёт обновление. Сама загрузка читает
+ * с основной БД ({@link PrimaryReads}), а не с реплики.
+ * <p>
+ * Сброс ключа во время загрузки отменяет кэширование результата: после записи в Redis
+ * признак проверяется повторно, и запись удаляется. Сброс с другого узла приходит через
+ * pub/sub и может опоздать — прийти уже после загрузки. Тогда устаревшее значение
+ * остаётся в Redis, но не дольше короткого TTL загруженных записей ({@link LoadedEntryTtl}).
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> local;
+    private final long freshNanos;
+    private final TwoLevelCacheManager manager;
+    private final CacheStatistics statistics;
+    private final HotKeyTracker hotKeys;
+    private final ConcurrentMap<String, InFlightLoad> inFlight = new ConcurrentHashMap<>();
+
+    TwoLevelCache(String name,
+                  Cache remote,
+                  com.github.benmanes.caffeine.cache.Cache<String, LocalEntry> local,
+                  long freshNanos,
+                  TwoLevelCacheManager manager,
+                  CacheStatistics statistics,
+                  HotKeyTracker hotKeys) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.freshNanos = freshNanos;
+        this.manager = manager;
+        this.statistics = statistics;
+        this.hotKeys = hotKeys;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        hotKeys.record(name, localKey);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null && entry.isFresh(freshNanos)) {
+            statistics.recordLocalHit(name, localKey);
+            return entry.wrapper();
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            statistics.recordRemoteHit(name, localKey);
+            putLocal(localKey, wrapper);
+        } else {
+            statistics.recordMiss(name, localKey);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        hotKeys.record(name, localKey);
+        LocalEntry entry = local.getIfPresent(localKey);
+        if (entry != null && entry.isFresh(freshNanos)) {
+            statistics.recordLocalHit(name, localKey);
+            return (T) entry.wrapper().get();
+        }
+
+        InFlightLoad load = new InFlightLoad();
+        InFlightLoad existing = inFlight.putIfAbsent(localKey, load);
+        if (existing != null) {
+            if (entry != null) {
+                // Обновление уже идёт в другом потоке — отдаём устаревшее значение
+                statistics.recordLocalHit(name, localKey);
+                return (T) entry.wrapper().get();
+            }
+            return (T) await(existing, key, valueLoader);
+        }
+
+        try {
+            Object value = load(key, localKey, valueLoader, load);
+            load.future.complete(value);
+            return (T) value;
+        } catch (RuntimeException ex) {
+            load.future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    private Object load(Object key, String localKey, Callable<?> valueLoader, InFlightLoad load) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            statistics.recordRemoteHit(name, localKey);
+            if (!load.invalidated) {
+                putLocal(localKey, wrapper);
+            }
+            return wrapper.get();
+        }
+
+        statistics.recordMiss(name, localKey);
+        Object value;
+        long started = System.nanoTime();
+        try {
+            value = PrimaryReads.call(valueLoader);
+        } catch (Exception ex) {
+            statistics.recordLoad(name, System.nanoTime() - started, false);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        statistics.recordLoad(name, System.nanoTime() - started, true);
+        if (load.invalidated) {
+            // Запись изменилась во время загрузки — результат не кэшируем
+            return value;
+        }
+        LoadedEntryTtl.putLoaded(() -> remote.put(key, value));
+        putLocal(localKey, new SimpleValueWrapper(value));
+        // Сброс мог прийти, пока шла запись: проверяем ещё раз уже после неё
+        if (load.invalidated) {
+            remote.evict(key);
+            local.invalidate(localKey);
+            return value;
+        }
+        manager.publishEvict(name, localKey);
+        return value;
+    }
+
+    private static Object await(InFlightLoad load, Object key, Callable<?> valueLoader) {
+        try {
+            return load.future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        putLocal(localKey(key), new SimpleValueWrapper(value));
+        manager.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        evictLocal(localKey(key));
+        manager.publishEvict(name, localKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        evictLocal(localKey(key));
+        manager.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        evictLocal(localKey(key));
+        manager.publishEvict(name, localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        clearLocal();
+        manager.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        clearLocal();
+        manager.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * Сброс только локального уровня, в том числе по сообщению от другого узла.
+     * Идущая загрузка этого ключа помечается, чтобы её результат не попал в кэш.
+     */
+    void evictLocal(String key) {
+        local.invalidate(key);
+        InFlightLoad load = inFlight.get(key);
+        if (load != null) {
+            load.invalidated = true;
+        }
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+        inFlight.values().forEach(load -> load.invalidated = true);
+    }
+
+    private void putLocal(String localKey, ValueWrapper wrapper) {
+        local.put(localKey, new LocalEntry(wrapper, System.nanoTime()));
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    record LocalEntry(ValueWrapper wrapper, long writtenAt) {
+        boolean isFresh(long freshNanos) {
+            return System.nanoTime() - writtenAt < freshNanos;
+        }
+    }
+
+    private static final class InFlightLoad {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.rutmiit.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Менеджер двухуровневых кэшей поверх Redis.
+ * <p>
+ * L1 ограничен по размеру и времени жизни; согласованность L1 между узлами
+ * поддерживается сообщениями в Redis pub/sub канал. Формат сообщения:
+ * {@code OP|nodeId|cacheName|key}, где OP — EVICT или CLEAR.
+ * <p>
+ * После истечения TTL запись ещё {@code staleGrace} хранится в L1 и отдаётся
+ * параллельным запросам, пока один из них загружает свежее значение.
+ * <p>
+ * Обращения к Redis идут через {@link RedisCircuitBreaker}: при его недоступности
+ * кэши продолжают работать на L1, а рассылка инвалидаций пропускается.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final String EVICT = "EVICT";
+    private static final String CLEAR = "CLEAR";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final Duration staleGrace;
+    private final CacheStatistics statistics;
+    private final HotKeyTracker hotKeys;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final int maxPendingEvictions;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                String channel,
+                                long localMaxSize,
+                                Duration localTtl,
+                                Duration staleGrace,
+                                CacheStatistics statistics,
+                                HotKeyTracker hotKeys,
+                                RedisCircuitBreaker circuitBreaker,
+                                int maxPendingEvictions) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.staleGrace = staleGrace;
+        this.statistics = statistics;
+        this.hotKeys = hotKeys;
+        this.circuitBreaker = circuitBreaker;
+        this.maxPendingEvictions = maxPendingEvictions;
+        log.info("TwoLevelCacheManager инициализирован: узел {}, L1 до {} записей, TTL {}",
+                nodeId, localMaxSize, localTtl);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache redisCache = remoteCacheManager.getCache(name);
+        if (redisCache == null) {
+            throw new IllegalArgumentException("Неизвестный кэш: " + name);
+        }
+        Cache remote = new CircuitBreakingCache(redisCache, circuitBreaker, maxPendingEvictions);
+        // Запись живёт в L1 дольше своего TTL, чтобы её можно было отдать на время перезагрузки
+        com.github.benmanes.caffeine.cache.Cache<String, TwoLevelCache.LocalEntry> local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl.plus(staleGrace))
+                .build();
+        return new TwoLevelCache(name, remote, local, localTtl.toNanos(), this, statistics, hotKeys);
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(EVICT, cacheName, key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(CLEAR, cacheName, "");
+    }
+
+    private void publish(String op, String cacheName, String key) {
+        if (circuitBreaker.isOpen()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, String.join("|", op, nodeId, cacheName, key));
+        } catch (RuntimeException ex) {
+            log.warn("Не удалось отправить инвалидацию {} {}::{}: {}", op, cacheName, key, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || nodeId.equals(parts[1])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[0])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+        log.debug("Инвалидация L1 от узла {}: {} {}::{}", parts[1], parts[0], parts[2], parts[3]);
+    }
+}
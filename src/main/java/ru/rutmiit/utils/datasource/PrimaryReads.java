@@ -0,0 +1,48 @@
+package ru.rutmiit.utils.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Чтение с основной БД для текущего потока, в том числе в read-only транзакциях.
+ * <p>
+ * Так загружаются значения для общего кэша: прочитанное с отстающей реплики
+ * осталось бы в Redis на весь TTL записи — уже после инвалидации.
+ * Признак учитывается при выборе соединения, поэтому выставлять его нужно
+ * до первого запроса транзакции.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Callable<T> action) throws Exception {
+        if (isRequested()) {
+            return action.call();
+        }
+        REQUESTED.set(Boolean.TRUE);
+        try {
+            return action.call();
+        } finally {
+            REQUESTED.remove();
+        }
+    }
+
+    public static void run(Runnable action) {
+        if (isRequested()) {
+            action.run();
+            return;
+        }
+        REQUESTED.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            REQUESTED.remove();
+        }
+    }
+
+    public static boolean isRequested() {
+        return Boolean.TRUE.equals(REQUESTED.get());
+    }
+}
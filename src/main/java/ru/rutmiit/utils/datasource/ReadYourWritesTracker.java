@@ -0,0 +1,64 @@
+package ru.rutmiit.utils.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Запоминает клиентов, недавно изменивших данные, чтобы их чтения в течение
+ * {@code window} шли на основную БД и не видели отстающую реплику.
+ * <p>
+ * Клиент — аутентифицированный пользователь, а для анонимных запросов (например,
+ * регистрации) — HTTP-сессия. Отметки хранятся в памяти узла: при нескольких узлах
+ * гарантия действует, пока запросы клиента попадают на тот же узел.
+ */
+public class ReadYourWritesTracker {
+
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = window.isZero()
+                ? null
+                : Caffeine.newBuilder().maximumSize(MAX_TRACKED_CLIENTS).expireAfterWrite(window).build();
+    }
+
+    public boolean isEnabled() {
+        return recentWriters != null;
+    }
+
+    public void recordWrite() {
+        String client = currentClient();
+        if (recentWriters != null && client != null) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    public boolean wroteRecently() {
+        String client = currentClient();
+        return recentWriters != null && client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpSession session = attributes.getRequest().getSession(false);
+            if (session != null) {
+                return "session:" + session.getId();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+package ru.rutmiit.utils.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.rutmiit.config.BeanConfiguration;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Маршрутизация соединений: read-only транзакции идут на реплики (по кругу среди
+ * исправных), остальное — на основную БД.
+ * <p>
+ * Используется за {@code LazyConnectionDataSourceProxy}: соединение берётся при первом
+ * запросе, когда признак read-only транзакции уже выставлен. Реплика исключается
+ * из маршрутизации, если не отвечает или отстаёт больше чем на {@code maxLag};
+ * проверка выполняется в фоне раз в {@code app.datasource.replicas.health-interval}.
+ * Если соединение с репликой получить не удалось, запрос уходит на основную БД.
+ * Реплика, у которой не идёт потоковая репликация, тоже исключается: без приёмника WAL
+ * полученное и применённое совпадают, и отставание выглядело бы нулевым. Статус приёмника
+ * виден только ролям из {@code pg_read_all_stats}, иначе реплика считается отставшей.
+ * <p>
+ * Значения для общего кэша загружаются с основной БД ({@link PrimaryReads}): с реплики
+ * они попадали бы в Redis с отставанием до {@code maxLag} уже после инвалидации
+ * и оставались бы там на весь TTL записи.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    // NULL, если приёмник WAL не в состоянии streaming. Отставание 0, если реплика
+    // применила всё полученное (иначе на простаивающей основной БД время последней
+    // транзакции растёт без реального отставания)
+    private static final String LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final double maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary,
+                                    List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker readYourWrites,
+                                    Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name(), replica.dataSource());
+            routed.put(replica.name(), routedCounter(meterRegistry, replica.name()));
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Реплика участвует в маршрутизации read-only транзакций")
+                    .tag("target", replica.name())
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWrite();
+            return PRIMARY;
+        }
+        if (PrimaryReads.isRequested() || readYourWrites.wroteRecently()) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica != null ? replica.name() : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String target = (String) determineCurrentLookupKey();
+        if (!PRIMARY.equals(target)) {
+            Replica replica = replicaByName(target);
+            try {
+                Connection connection = replica.dataSource().getConnection();
+                routed.get(target).increment();
+                return connection;
+            } catch (SQLException ex) {
+                markDown(replica, ex.getMessage());
+            }
+        }
+        routed.get(PRIMARY).increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Пулы Hikari не поддерживают смену учётных данных на соединение
+        return getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-interval}",
+               scheduler = BeanConfiguration.HEALTH_CHECK_SCHEDULER)
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                lag.next();
+                double lagSeconds = lag.getDouble(1);
+                if (lag.wasNull()) {
+                    markDown(replica, "потоковая репликация не идёт");
+                } else if (lagSeconds > maxLagSeconds) {
+                    markDown(replica, "отставание " + lagSeconds + " с");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Реплика {} снова доступна для чтения", replica.name());
+                }
+            } catch (SQLException ex) {
+                markDown(replica, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource().close());
+        primary.close();
+    }
+
+    /**
+     * После коммита пишущей транзакции клиент какое-то время читает с основной БД.
+     */
+    private void rememberWrite() {
+        if (readYourWrites.isEnabled() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWrites.recordWrite();
+                }
+            });
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica replicaByName(String name) {
+        return replicas.stream().filter(replica -> replica.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Реплика {} исключена из маршрутизации: {}", replica.name(), reason);
+        }
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing")
+                .description("Соединения, выданные каждому источнику данных")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        HikariDataSource dataSource() {
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.rutmiit.utils.datasource;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Эндпоинт {@code /actuator/tablesizes}: размер таблиц приложения и каждого их индекса в байтах.
+ * Нужен, чтобы сравнивать объём первичных ключей и индексов до и после изменений схемы.
+ */
+@Component
+@Endpoint(id = "tablesizes")
+public class TableSizeEndpoint {
+
+    private static final String SIZES_SQL = """
+            SELECT t.relname AS table_name, i.relname AS index_name,
+                   pg_relation_size(t.oid) AS table_bytes, pg_relation_size(i.oid) AS index_bytes
+            FROM pg_class t
+            JOIN pg_index x ON x.indrelid = t.oid
+            JOIN pg_class i ON i.oid = x.indexrelid
+            WHERE t.relname IN ('companies', 'employees', 'users', 'roles', 'users_roles')
+              AND t.relnamespace = current_schema()::regnamespace
+            ORDER BY t.relname, i.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableSizeEndpoint(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @ReadOperation
+    public List<IndexSize> sizes() {
+        return jdbcTemplate.query(SIZES_SQL, (rs, rowNum) -> new IndexSize(
+                rs.getString("table_name"),
+                rs.getString("index_name"),
+                rs.getLong("table_bytes"),
+                rs.getLong("index_bytes")));
+    }
+
+    public record IndexSize(String table, String index, long tableBytes, long indexBytes) {
+    }
+}
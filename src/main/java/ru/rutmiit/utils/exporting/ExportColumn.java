@@ -0,0 +1,9 @@
+package ru.rutmiit.utils.exporting;
+
+import java.util.function.Function;
+
+/**
+ * Колонка выгрузки: имя (заголовок CSV или ключ JSON) и способ получить значение из строки.
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {
+}
@@ -0,0 +1,38 @@
+package ru.rutmiit.utils.exporting;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    JSONL(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8), "jsonl");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException для неизвестного формата
+     */
+    public static ExportFormat of(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "jsonl", "ndjson" -> JSONL;
+            default -> throw new IllegalArgumentException("Неизвестный формат выгрузки: " + value);
+        };
+    }
+}
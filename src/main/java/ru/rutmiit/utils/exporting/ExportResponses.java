@@ -0,0 +1,46 @@
+package ru.rutmiit.utils.exporting;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ответ с выгрузкой в виде файла. Тело пишется в отдельном потоке MVC по мере чтения
+ * из БД; если клиент принимает gzip, поток сжимается на лету.
+ */
+public final class ExportResponses {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private ExportResponses() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> attachment(String baseName,
+                                                                   ExportFormat format,
+                                                                   String acceptEncoding,
+                                                                   StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(baseName + "." + format.extension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding == null || !acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            return response.body(body);
+        }
+        return response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(out -> {
+                    // Поток ответа закрывает контейнер, здесь только дописывается хвост gzip
+                    GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    body.writeTo(gzip);
+                    gzip.finish();
+                });
+    }
+}
@@ -0,0 +1,140 @@
+package ru.rutmiit.utils.exporting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Построчная запись выгрузки в поток. Строка сразу уходит в буфер вывода,
+ * поэтому расход памяти не зависит от объёма выгрузки.
+ * {@link #close()} сбрасывает буфер, но не закрывает исходный поток.
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Генератор пишет в общий буфер и не сбрасывает его в поток после каждого объекта
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
+
+    protected final List<ExportColumn<T>> columns;
+    protected final Writer writer;
+
+    private ExportWriter(OutputStream out, List<ExportColumn<T>> columns) {
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static <T> ExportWriter<T> open(ExportFormat format, OutputStream out, List<ExportColumn<T>> columns)
+            throws IOException {
+        return switch (format) {
+            case CSV -> new Csv<>(out, columns);
+            case JSONL -> new JsonLines<>(out, columns);
+        };
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    // Double.toString даёт экспоненту уже для 10^7, а суммы в выгрузке нужны как есть
+    private static String plain(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue()).stripTrailingZeros().toPlainString();
+        }
+        return number.toString();
+    }
+
+    private static final class Csv<T> extends ExportWriter<T> {
+
+        Csv(OutputStream out, List<ExportColumn<T>> columns) throws IOException {
+            super(out, columns);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value instanceof Number number) {
+                    writer.write(plain(number));
+                } else if (value != null) {
+                    writeText(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeText(String text) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char ch = text.charAt(i);
+                quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+            }
+            if (!quote) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class JsonLines<T> extends ExportWriter<T> {
+
+        private final JsonGenerator generator;
+
+        JsonLines(OutputStream out, List<ExportColumn<T>> columns) throws IOException {
+            super(out, columns);
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeFieldName(column.name());
+                Object value = column.value().apply(row);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(plain(number));
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.rutmiit.utils.ids;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор идентификаторов UUID версии 7 (RFC 9562).
+ * <p>
+ * Старшие 48 бит — время в миллисекундах Unix, следующие 12 — счётчик внутри миллисекунды,
+ * остальные 62 — случайные. Ключи, выданные узлом, строго возрастают, поэтому новые
+ * записи дописываются в правый край B-дерева первичного ключа, а не в случайные страницы,
+ * как при UUIDv4. При переполнении счётчика время «забегает» на следующую миллисекунду.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    // Время (мс) и счётчик последнего выданного идентификатора: (millis << 12) | counter
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state = LAST.updateAndGet(previous -> Math.max(previous + 1, now));
+        long mostSignificant = (state >>> COUNTER_BITS) << 16
+                | 0x7000L
+                | state & 0xFFFL;
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL
+                | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
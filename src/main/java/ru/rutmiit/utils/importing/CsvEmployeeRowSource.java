@@ -0,0 +1,202 @@
+package ru.rutmiit.utils.importing;
+
+import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.models.enums.EducationLevel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV (RFC 4180) с заголовком. Порядок колонок произвольный, имена колонок совпадают
+ * с полями {@link AddEmployeeDto} без учёта регистра. Разделитель — запятая или точка
+ * с запятой (определяется по заголовку). Номер строки — номер строки файла, на которой
+ * начинается запись, заголовок — строка 1.
+ */
+class CsvEmployeeRowSource implements EmployeeRowSource {
+
+    static final List<String> COLUMNS = List.of(
+            "firstName", "lastName", "educationLevel", "companyName", "jobTitle", "birthDate", "salary");
+
+    private final BufferedReader reader;
+    private final int[] columnIndexes = new int[COLUMNS.size()];
+    private char delimiter = ',';
+    private long line = 1;
+
+    CsvEmployeeRowSource(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        readHeader();
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        List<String> record;
+        long rowNumber;
+        do {
+            rowNumber = line;
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        try {
+            return ImportRow.parsed(rowNumber, toEmployee(record));
+        } catch (IllegalArgumentException ex) {
+            return ImportRow.failed(rowNumber, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        reader.mark(4096);
+        String firstLine = reader.readLine();
+        if (firstLine == null) {
+            throw new IllegalArgumentException("Файл импорта пуст");
+        }
+        reader.reset();
+        if (firstLine.indexOf(';') >= 0 && firstLine.indexOf(',') < 0) {
+            delimiter = ';';
+        }
+
+        List<String> header = readRecord();
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // BOM, который добавляют табличные редакторы
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            positions.put(name, i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer position = positions.get(COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (position == null) {
+                missing.add(COLUMNS.get(i));
+            } else {
+                columnIndexes[i] = position;
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("В заголовке CSV нет колонок: " + String.join(", ", missing));
+        }
+    }
+
+    /**
+     * Читает одну запись; поле в кавычках может содержать разделители, переводы строк
+     * и удвоенные кавычки.
+     */
+    private List<String> readRecord() throws IOException {
+        int ch = reader.read();
+        if (ch == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (ch == -1) {
+                    throw new IOException("Незакрытая кавычка в записи, начинающейся на строке " + line);
+                }
+                if (ch == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (ch == '\n') {
+                        line++;
+                    }
+                    field.append((char) ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r') {
+                // Переводы строк Windows: '\r' пропускается, запись завершает '\n'
+            } else if (ch == '\n' || ch == -1) {
+                fields.add(field.toString());
+                if (ch == '\n') {
+                    line++;
+                }
+                return fields;
+            } else {
+                field.append((char) ch);
+            }
+            ch = reader.read();
+        }
+    }
+
+    private AddEmployeeDto toEmployee(List<String> record) {
+        String[] values = new String[COLUMNS.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = columnIndexes[i] < record.size() ? emptyToNull(record.get(columnIndexes[i])) : null;
+        }
+
+        AddEmployeeDto employee = new AddEmployeeDto();
+        employee.setFirstName(values[0]);
+        employee.setLastName(values[1]);
+        employee.setEducationLevel(parseEducationLevel(values[2]));
+        employee.setCompanyName(values[3]);
+        employee.setJobTitle(values[4]);
+        employee.setBirthDate(parseDate(values[5]));
+        employee.setSalary(parseSalary(values[6]));
+        return employee;
+    }
+
+    private static String emptyToNull(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static EducationLevel parseEducationLevel(String value) {
+        if (value == null) {
+            return null;
+        }
+        return Arrays.stream(EducationLevel.values())
+                .filter(level -> level.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестный уровень образования: " + value));
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Дата рождения должна быть в формате ГГГГ-ММ-ДД: " + value);
+        }
+    }
+
+    private static Double parseSalary(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.replace(" ", "").replace(',', '.'));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Зарплата должна быть числом: " + value);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.rutmiit.utils.importing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Потоковый источник строк импорта сотрудников.
+ * <p>
+ * Строки читаются по одной по мере обращения, файл целиком в память не загружается.
+ * Ошибки в отдельной строке возвращаются как {@link ImportRow#failed}, а нарушение
+ * формата самого файла (незакрытые кавычки, битый JSON) — как {@link IOException}.
+ */
+public interface EmployeeRowSource extends Closeable {
+
+    /**
+     * @return следующая строка или {@code null}, если файл закончился
+     */
+    ImportRow next() throws IOException;
+
+    static EmployeeRowSource csv(InputStream input) throws IOException {
+        return new CsvEmployeeRowSource(input);
+    }
+
+    static EmployeeRowSource json(InputStream input) throws IOException {
+        return new JsonEmployeeRowSource(input);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.rutmiit.utils.importing;
+
+import ru.rutmiit.dto.AddEmployeeDto;
+
+/**
+ * Строка файла импорта: номер строки в исходном файле и разобранный сотрудник
+ * либо сообщение об ошибке разбора.
+ */
+public record ImportRow(long rowNumber, AddEmployeeDto employee, String error) {
+
+    public static ImportRow parsed(long rowNumber, AddEmployeeDto employee) {
+        return new ImportRow(rowNumber, employee, null);
+    }
+
+    public static ImportRow failed(long rowNumber, String error) {
+        return new ImportRow(rowNumber, null, error);
+    }
+}
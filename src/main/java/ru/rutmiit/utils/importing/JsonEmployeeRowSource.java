@@ -0,0 +1,65 @@
+package ru.rutmiit.utils.importing;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ru.rutmiit.dto.AddEmployeeDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * JSON Lines (по объекту на строку) или JSON-массив объектов с полями {@link AddEmployeeDto}.
+ * Номер строки — порядковый номер объекта, начиная с 1.
+ */
+class JsonEmployeeRowSource implements EmployeeRowSource {
+
+    // Собственный маппер: основной ObjectMapper приложения настроен на типизированный JSON для Redis
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final JsonParser parser;
+    private final boolean array;
+    private long rowNumber;
+
+    JsonEmployeeRowSource(InputStream input) throws IOException {
+        this.parser = MAPPER.getFactory().createParser(input);
+        JsonToken first = parser.nextToken();
+        this.array = first == JsonToken.START_ARRAY;
+        if (array) {
+            parser.nextToken();
+        }
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null || (array && token == JsonToken.END_ARRAY)) {
+            return null;
+        }
+        rowNumber++;
+        // Объект сначала читается в дерево, чтобы ошибка в значении поля не прерывала разбор файла
+        JsonNode node = parser.readValueAsTree();
+        parser.nextToken();
+        if (node == null || !node.isObject()) {
+            return ImportRow.failed(rowNumber, "Ожидался JSON-объект сотрудника");
+        }
+        try {
+            return ImportRow.parsed(rowNumber, MAPPER.treeToValue(node, AddEmployeeDto.class));
+        } catch (JsonProcessingException ex) {
+            return ImportRow.failed(rowNumber, "Некорректное значение поля: " + ex.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.rutmiit.utils.mapping;
+
+import org.springframework.stereotype.Component;
+import ru.rutmiit.dto.AddCompanyDto;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowDetailedCompanyInfoDto;
+import ru.rutmiit.models.entities.Company;
+
+import java.util.List;
+
+@Component
+public class CompanyMapper implements DtoMapper {
+
+    public Company toEntity(AddCompanyDto dto) {
+        Company company = new Company();
+        company.setName(dto.getName());
+        company.setTown(dto.getTown());
+        company.setDescription(dto.getDescription());
+        company.setBudget(dto.getBudget());
+        return company;
+    }
+
+    public ShowCompanyInfoDto toInfo(Company company) {
+        return new ShowCompanyInfoDto(company.getName(), company.getTown(), company.getDescription());
+    }
+
+    public ShowDetailedCompanyInfoDto toDetailedInfo(Company company) {
+        ShowDetailedCompanyInfoDto dto = new ShowDetailedCompanyInfoDto();
+        dto.setName(company.getName());
+        dto.setTown(company.getTown());
+        dto.setDescription(company.getDescription());
+        // budget в базе NOT NULL, но до сохранения может отсутствовать
+        dto.setBudget(company.getBudget() != null ? company.getBudget() : 0);
+        dto.setEmployeeCount(company.getEmployeeCount());
+        dto.setTotalSalary(company.getTotalSalary());
+        dto.setAverageSalary(company.getAverageSalary());
+        return dto;
+    }
+
+    @Override
+    public List<Mapping<?, ?>> mappings() {
+        return List.of(
+                Mapping.of(AddCompanyDto.class, Company.class, this::toEntity,
+                        "id", "createdAt", "updatedAt", "employees"),
+                Mapping.of(Company.class, ShowCompanyInfoDto.class, this::toInfo),
+                Mapping.of(Company.class, ShowDetailedCompanyInfoDto.class, this::toDetailedInfo));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.rutmiit.utils.mapping;
+
+import java.util.List;
+
+/**
+ * Маппер между сущностями и DTO. Преобразования написаны вручную, без отражения;
+ * {@link MappingSelfCheck} при запуске проверяет, что они заполняют все свойства.
+ */
+public interface DtoMapper {
+
+    List<Mapping<?, ?>> mappings();
+}
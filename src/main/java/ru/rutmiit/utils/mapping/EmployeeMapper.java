@@ -0,0 +1,55 @@
+package ru.rutmiit.utils.mapping;
+
+import org.springframework.stereotype.Component;
+import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.ShowDetailedEmployeeInfoDto;
+import ru.rutmiit.dto.ShowEmployeeInfoDto;
+import ru.rutmiit.models.entities.Employee;
+
+import java.util.List;
+
+@Component
+public class EmployeeMapper implements DtoMapper {
+
+    /**
+     * Компанию по {@code companyName} сервис находит и выставляет сам.
+     */
+    public Employee toEntity(AddEmployeeDto dto) {
+        Employee employee = new Employee();
+        employee.setFirstName(dto.getFirstName());
+        employee.setLastName(dto.getLastName());
+        employee.setEducationLevel(dto.getEducationLevel());
+        employee.setJobTitle(dto.getJobTitle());
+        employee.setBirthDate(dto.getBirthDate());
+        employee.setSalary(dto.getSalary());
+        return employee;
+    }
+
+    public ShowEmployeeInfoDto toInfo(Employee employee) {
+        return new ShowEmployeeInfoDto(employee.getFirstName(), employee.getLastName(),
+                employee.getJobTitle(), employee.getBirthDate());
+    }
+
+    public ShowDetailedEmployeeInfoDto toDetailedInfo(Employee employee) {
+        ShowDetailedEmployeeInfoDto dto = new ShowDetailedEmployeeInfoDto();
+        dto.setFirstName(employee.getFirstName());
+        dto.setLastName(employee.getLastName());
+        dto.setEducationLevel(employee.getEducationLevel());
+        dto.setJobTitle(employee.getJobTitle());
+        dto.setBirthDate(employee.getBirthDate());
+        dto.setSalary(employee.getSalary());
+        if (employee.getCompany() != null) {
+            dto.setCompanyName(employee.getCompany().getName());
+        }
+        return dto;
+    }
+
+    @Override
+    public List<Mapping<?, ?>> mappings() {
+        return List.of(
+                Mapping.of(AddEmployeeDto.class, Employee.class, this::toEntity,
+                        "id", "createdAt", "updatedAt", "company"),
+                Mapping.of(Employee.class, ShowEmployeeInfoDto.class, this::toInfo),
+                Mapping.of(Employee.class, ShowDetailedEmployeeInfoDto.class, this::toDetailedInfo));
+    }
+}
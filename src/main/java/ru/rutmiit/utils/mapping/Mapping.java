@@ -0,0 +1,18 @@
+package ru.rutmiit.utils.mapping;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Описание одного преобразования для проверки при запуске.
+ *
+ * @param ignored свойства результата, которые преобразование намеренно не заполняет
+ *                (идентификатор, аудит, связи, которые сервис выставляет сам)
+ */
+public record Mapping<S, T>(Class<S> source, Class<T> target, Function<S, T> function, Set<String> ignored) {
+
+    public static <S, T> Mapping<S, T> of(Class<S> source, Class<T> target, Function<S, T> function,
+                                          String... ignored) {
+        return new Mapping<>(source, target, function, Set.of(ignored));
+    }
+}
@@ -0,0 +1,142 @@
+package ru.rutmiit.utils.mapping;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Проверка ручных мапперов при запуске.
+ * <p>
+ * Для каждого преобразования строится источник, у которого заполнены все поля
+ * (включая вложенные сущности), и проверяется, что в результате заполнено каждое
+ * записываемое свойство, кроме явно перечисленных в {@link Mapping#ignored()}.
+ * Новое поле DTO или сущности, забытое в маппере, останавливает запуск приложения,
+ * а не превращается в пустую колонку на странице.
+ */
+@Slf4j
+@Component
+public class MappingSelfCheck {
+
+    private static final int MAX_DEPTH = 2;
+
+    private final List<DtoMapper> mappers;
+
+    public MappingSelfCheck(List<DtoMapper> mappers) {
+        this.mappers = mappers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        List<String> problems = new ArrayList<>();
+        int checked = 0;
+        for (DtoMapper mapper : mappers) {
+            for (Mapping<?, ?> mapping : mapper.mappings()) {
+                problems.addAll(check(mapping));
+                checked++;
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Мапперы DTO заполняют не все свойства: " + String.join("; ", problems));
+        }
+        log.info("Проверено преобразований DTO: {}", checked);
+    }
+
+    private List<String> check(Mapping<?, ?> mapping) {
+        Object result = apply(mapping, sample(mapping.source(), 0));
+        List<String> problems = new ArrayList<>();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(mapping.target())) {
+            if (property.getWriteMethod() == null || property.getReadMethod() == null
+                    || mapping.ignored().contains(property.getName())) {
+                continue;
+            }
+            Object value = ReflectionUtils.invokeMethod(property.getReadMethod(), result);
+            if (isEmpty(value)) {
+                problems.add(mapping.source().getSimpleName() + " -> " + mapping.target().getSimpleName()
+                        + ": не заполнено " + property.getName());
+            }
+        }
+        return problems;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> T apply(Mapping<S, T> mapping, Object source) {
+        return mapping.function().apply((S) source);
+    }
+
+    private static Object sample(Class<?> type, int depth) {
+        Object instance = BeanUtils.instantiateClass(type);
+        ReflectionUtils.doWithFields(type, field -> {
+            Object value = sampleValue(field.getType(), depth);
+            if (value != null) {
+                ReflectionUtils.makeAccessible(field);
+                ReflectionUtils.setField(field, instance, value);
+            }
+        }, MappingSelfCheck::isInstanceField);
+        return instance;
+    }
+
+    private static boolean isInstanceField(Field field) {
+        return !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers());
+    }
+
+    private static Object sampleValue(Class<?> type, int depth) {
+        if (type == String.class) {
+            return "sample";
+        }
+        if (type == Double.class || type == double.class) {
+            return 2.5;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 3;
+        }
+        if (type == Long.class || type == long.class) {
+            return 3L;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(1990, 1, 1);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2024, 1, 1, 0, 0);
+        }
+        if (type == UUID.class) {
+            return UUID.randomUUID();
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            return null;
+        }
+        if (depth < MAX_DEPTH && type.getPackageName().startsWith("ru.rutmiit")) {
+            return sample(type, depth + 1);
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value == null) {
+            return true;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue() == 0;
+        }
+        return value instanceof Boolean bool && !bool;
+    }
+}
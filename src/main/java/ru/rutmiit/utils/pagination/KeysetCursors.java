@@ -0,0 +1,105 @@
+package ru.rutmiit.utils.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Непрозрачные курсоры для keyset-пагинации.
+ * <p>
+ * Курсор — base64url от направления и значений ключей сортировки последней
+ * (или первой) записи страницы. Поддерживаются строковые, числовые, UUID-ключи и даты.
+ * Версия 2 — идентификаторы стали UUID; курсоры версии 1 со строковыми id отвергаются.
+ */
+public final class KeysetCursors {
+
+    private static final byte VERSION = 2;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_DOUBLE = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_UUID = 4;
+    private static final byte TYPE_DATE = 5;
+
+    private KeysetCursors() {
+    }
+
+    public static String encode(KeysetScrollPosition position) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeBoolean(position.scrollsForward());
+            out.writeByte(position.getKeys().size());
+            for (Map.Entry<String, ?> key : position.getKeys().entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getValue());
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Не удалось сформировать курсор", ex);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException если курсор повреждён или подделан
+     */
+    public static KeysetScrollPosition decode(String cursor) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Устаревший курсор страницы");
+            }
+            boolean forward = in.readBoolean();
+            int count = in.readByte();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            return forward ? ScrollPosition.forward(keys) : ScrollPosition.backward(keys);
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Некорректный курсор страницы", ex);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Double d) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Long l) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(l);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(TYPE_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof LocalDate date) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(date.toEpochDay());
+        } else {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF(String.valueOf(value));
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_STRING -> in.readUTF();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_UUID -> new UUID(in.readLong(), in.readLong());
+            case TYPE_DATE -> LocalDate.ofEpochDay(in.readLong());
+            default -> throw new IOException("Неизвестный тип ключа курсора: " + type);
+        };
+    }
+}
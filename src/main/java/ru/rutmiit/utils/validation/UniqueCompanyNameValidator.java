@@ -1,18 +1,24 @@
 package ru.rutmiit.utils.validation;
 
 import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.utils.cache.ExistenceFilters;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 public class UniqueCompanyNameValidator implements ConstraintValidator<UniqueCompanyName, String> {
     private final CompanyRepository companyRepository;
+    private final ExistenceFilters existenceFilters;
 
-    public UniqueCompanyNameValidator(CompanyRepository companyRepository) {
+    public UniqueCompanyNameValidator(CompanyRepository companyRepository, ExistenceFilters existenceFilters) {
         this.companyRepository = companyRepository;
+        this.existenceFilters = existenceFilters;
     }
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        return companyRepository.findByName(value).isEmpty();
+        if (!existenceFilters.mightContain(ExistenceFilters.Kind.COMPANY_NAME, value)) {
+            return true;
+        }
+        return !companyRepository.existsByName(value);
     }
 }
@@ -4,13 +4,16 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import org.springframework.stereotype.Component;
 import ru.rutmiit.repositories.UserRepository;
+import ru.rutmiit.utils.cache.ExistenceFilters;
 
 @Component
 public class UniqueEmailValidator implements ConstraintValidator<UniqueEmail, String> {
     private final UserRepository userRepository;
+    private final ExistenceFilters existenceFilters;
 
-    public UniqueEmailValidator(UserRepository userRepository) {
+    public UniqueEmailValidator(UserRepository userRepository, ExistenceFilters existenceFilters) {
         this.userRepository = userRepository;
+        this.existenceFilters = existenceFilters;
     }
 
     @Override
@@ -18,6 +21,9 @@ public class UniqueEmailValidator implements ConstraintValidator<UniqueEmail, St
         if (value == null || value.isBlank()) {
             return true;
         }
-        return userRepository.findByEmail(value).isEmpty();
+        if (!existenceFilters.mightContain(ExistenceFilters.Kind.EMAIL, value)) {
+            return true;
+        }
+        return !userRepository.existsByEmail(value);
     }
 }
@@ -4,13 +4,16 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import org.springframework.stereotype.Component;
 import ru.rutmiit.repositories.UserRepository;
+import ru.rutmiit.utils.cache.ExistenceFilters;
 
 @Component
 public class UniqueUsernameValidator implements ConstraintValidator<UniqueUsername, String> {
     private final UserRepository userRepository;
+    private final ExistenceFilters existenceFilters;
 
-    public UniqueUsernameValidator(UserRepository userRepository) {
+    public UniqueUsernameValidator(UserRepository userRepository, ExistenceFilters existenceFilters) {
         this.userRepository = userRepository;
+        this.existenceFilters = existenceFilters;
     }
 
     @Override
@@ -18,6 +21,9 @@ public class UniqueUsernameValidator implements ConstraintValidator<UniqueUserna
         if (value == null || value.isBlank()) {
             return true;
         }
-        return userRepository.findByUsername(value).isEmpty();
+        if (!existenceFilters.mightContain(ExistenceFilters.Kind.USERNAME, value)) {
+            return true;
+        }
+        return !userRepository.existsByUsername(value);
     }
 }
@@ -2,6 +2,7 @@ package ru.rutmiit.web;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -49,18 +50,39 @@ public class AuthController {
         
         if (bindingResult.hasErrors()) {
             log.warn("Ошибки валидации при регистрации: {}", bindingResult.getAllErrors());
-            redirectAttributes.addFlashAttribute("userRegistrationDto", userRegistrationDto);
-            redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.userRegistrationDto", bindingResult);
-
-            return "redirect:/users/register";
+            return redirectToForm(userRegistrationDto, bindingResult, redirectAttributes);
         }
 
-        this.authService.register(userRegistrationDto);
+        try {
+            this.authService.register(userRegistrationDto);
+        } catch (DataIntegrityViolationException ex) {
+            // Проверку уникальности пропустил отставший фильтр Блума — дубликат остановил индекс
+            if (authService.isUsernameTaken(userRegistrationDto.getUsername())) {
+                bindingResult.rejectValue("username", "UniqueUsername", "Имя пользователя уже занято!");
+            }
+            if (authService.isEmailTaken(userRegistrationDto.getEmail())) {
+                bindingResult.rejectValue("email", "UniqueEmail", "Email уже используется!");
+            }
+            if (!bindingResult.hasErrors()) {
+                throw ex;
+            }
+            log.warn("Нарушение уникальности при регистрации: {}", bindingResult.getAllErrors());
+            return redirectToForm(userRegistrationDto, bindingResult, redirectAttributes);
+        }
         log.info("Пользователь успешно зарегистрирован: {}", userRegistrationDto.getUsername());
 
         return "redirect:/users/login";
     }
 
+    private static String redirectToForm(UserRegistrationDto userRegistrationDto,
+                                         BindingResult bindingResult,
+                                         RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("userRegistrationDto", userRegistrationDto);
+        redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.userRegistrationDto", bindingResult);
+
+        return "redirect:/users/register";
+    }
+
     @GetMapping("/login")
     public String login() {
         log.debug("Отображение страницы входа");
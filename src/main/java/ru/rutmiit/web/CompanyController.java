@@ -2,28 +2,43 @@ package ru.rutmiit.web;
 
 import lombok.extern.slf4j.Slf4j;
 import ru.rutmiit.dto.AddCompanyDto;
+import ru.rutmiit.dto.CompanyKeysetPageDto;
+import ru.rutmiit.dto.CompanyDeletionReportDto;
+import ru.rutmiit.services.CompanyDeletionService;
 import ru.rutmiit.services.CompanyService;
+import ru.rutmiit.services.ExportService;
+import ru.rutmiit.utils.exporting.ExportFormat;
+import ru.rutmiit.utils.exporting.ExportResponses;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import ru.rutmiit.dto.ShowCompanyInfoDto;
 
+import java.util.List;
+
 @Slf4j
 @Controller
 @RequestMapping("/companies")
 public class CompanyController {
     
     private final CompanyService companyService;
+    private final ExportService exportService;
+    private final CompanyDeletionService companyDeletionService;
 
-    public CompanyController(CompanyService companyService) {
+    public CompanyController(CompanyService companyService, ExportService exportService,
+                             CompanyDeletionService companyDeletionService) {
         this.companyService = companyService;
+        this.exportService = exportService;
+        this.companyDeletionService = companyDeletionService;
         log.info("CompanyController инициализирован");
     }
 
@@ -46,46 +61,81 @@ public class CompanyController {
         
         if (bindingResult.hasErrors()) {
             log.warn("Ошибки валидации при добавлении компании: {}", bindingResult.getAllErrors());
-            redirectAttributes.addFlashAttribute("companyModel", companyModel);
-            redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.companyModel",
-                    bindingResult);
-            return "redirect:/companies/add";
+            return redirectToAddForm(companyModel, bindingResult, redirectAttributes);
         }
         
-        companyService.addCompany(companyModel);
+        try {
+            companyService.addCompany(companyModel);
+        } catch (DataIntegrityViolationException ex) {
+            // Проверку уникальности пропустил отставший фильтр Блума — дубликат остановил индекс
+            if (!companyService.isCompanyNameTaken(companyModel.getName())) {
+                throw ex;
+            }
+            log.warn("Компания с названием {} уже существует", companyModel.getName());
+            bindingResult.rejectValue("name", "UniqueCompanyName", "Company already exists!");
+            return redirectToAddForm(companyModel, bindingResult, redirectAttributes);
+        }
         redirectAttributes.addFlashAttribute("successMessage", 
             "Компания '" + companyModel.getName() + "' успешно добавлена!");
         
         return "redirect:/companies/all";
     }
 
+    private static String redirectToAddForm(AddCompanyDto companyModel,
+                                            BindingResult bindingResult,
+                                            RedirectAttributes redirectAttributes) {
+        redirectAttributes.addFlashAttribute("companyModel", companyModel);
+        redirectAttributes.addFlashAttribute("org.springframework.validation.BindingResult.companyModel",
+                bindingResult);
+        return "redirect:/companies/add";
+    }
+
     @GetMapping("/all")
     public String showAllCompanies(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
             Model model) {
         
-        log.debug("Отображение списка компаний: страница={}, размер={}, сортировка={}, поиск={}", 
-                  page, size, sortBy, search);
+        log.debug("Отображение списка компаний: страница={}, размер={}, сортировка={}, поиск={}, курсор={}",
+                  page, size, sortBy, search, cursor);
 
         if (search != null && !search.trim().isEmpty()) {
-            model.addAttribute("companyInfos", companyService.searchCompanies(search));
-            model.addAttribute("search", search);
-        } else {
-            Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
-            Page<ShowCompanyInfoDto> companyPage = companyService.allCompaniesPaginated(pageable);
-            
+            // Результаты поиска упорядочены по релевантности и листаются по номеру страницы
+            Page<ShowCompanyInfoDto> companyPage = companyService.searchCompanies(search.trim(), PageRequest.of(page, size));
+            model.addAttribute("search", search.trim());
             model.addAttribute("companyInfos", companyPage.getContent());
             model.addAttribute("currentPage", page);
             model.addAttribute("totalPages", companyPage.getTotalPages());
             model.addAttribute("totalItems", companyPage.getTotalElements());
+        } else {
+            // Список листается курсором: запрос не зависит от глубины страницы
+            CompanyKeysetPageDto companyPage = companyService.scrollCompanies(
+                    cursor != null && !cursor.isBlank() ? cursor : null, size, sortBy);
+            model.addAttribute("companyInfos", companyPage.getCompanies());
+            model.addAttribute("nextCursor", companyPage.getNextCursor());
+            model.addAttribute("prevCursor", companyPage.getPrevCursor());
+            model.addAttribute("sortBy", sortBy);
+            model.addAttribute("size", size);
+            model.addAttribute("totalItems", companyService.companyCount());
         }
 
         return "company-all";
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCompanies(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        log.debug("Выгрузка компаний в формате {}", exportFormat);
+
+        return ExportResponses.attachment("companies", exportFormat, acceptEncoding,
+                out -> exportService.exportCompanies(exportFormat, out));
+    }
+
     @GetMapping("/company-details/{company-name}")
     public String companyDetails(@PathVariable("company-name") String companyName, Model model) {
         log.debug("Запрос деталей компании: {}", companyName);
@@ -102,4 +152,29 @@ public class CompanyController {
             "Компания '" + companyName + "' успешно удалена!");
         return "redirect:/companies/all";
     }
+
+    @GetMapping("/bulk-delete")
+    public String showBulkDeleteForm() {
+        log.debug("Отображение формы массового удаления компаний");
+        return "company-bulk-delete";
+    }
+
+    @PostMapping("/bulk-delete")
+    public String bulkDeleteCompanies(@RequestParam("names") String names, Model model) {
+        List<String> companyNames = names.lines()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+        if (companyNames.isEmpty()) {
+            throw new IllegalArgumentException("Укажите хотя бы одну компанию");
+        }
+        log.debug("Массовое удаление компаний: {}", companyNames.size());
+
+        CompanyDeletionReportDto report = companyDeletionService.removeCompanies(companyNames);
+        model.addAttribute("report", report);
+        model.addAttribute("names", names);
+
+        return "company-bulk-delete";
+    }
 }
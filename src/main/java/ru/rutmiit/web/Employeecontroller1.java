@@ -2,26 +2,55 @@ package ru.rutmiit.web;
 
 import lombok.extern.slf4j.Slf4j;
 import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.EmployeeFilterDto;
+import ru.rutmiit.dto.EmployeeImportReportDto;
+import ru.rutmiit.dto.EmployeeKeysetPageDto;
+import ru.rutmiit.dto.EmployeeTransferReportDto;
 import ru.rutmiit.dto.TransferEmployeeDto;
+import ru.rutmiit.models.enums.EducationLevel;
 import ru.rutmiit.services.CompanyService;
+import ru.rutmiit.services.EmployeeImportService;
 import ru.rutmiit.services.EmployeeService;
+import ru.rutmiit.services.EmployeeTransferService;
+import ru.rutmiit.services.ExportService;
+import ru.rutmiit.utils.exporting.ExportFormat;
+import ru.rutmiit.utils.exporting.ExportResponses;
+import ru.rutmiit.utils.importing.EmployeeRowSource;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
 @Slf4j
 @Controller
 @RequestMapping("/employees")
 public class EmployeeController {
     private final EmployeeService employeeService;
     private final CompanyService companyService;
+    private final EmployeeImportService employeeImportService;
+    private final ExportService exportService;
+    private final EmployeeTransferService employeeTransferService;
 
-    public EmployeeController(EmployeeService employeeService, CompanyService companyService) {
+    public EmployeeController(EmployeeService employeeService, CompanyService companyService,
+                              EmployeeImportService employeeImportService, ExportService exportService,
+                              EmployeeTransferService employeeTransferService) {
         this.employeeService = employeeService;
         this.companyService = companyService;
+        this.employeeImportService = employeeImportService;
+        this.exportService = exportService;
+        this.employeeTransferService = employeeTransferService;
         log.info("EmployeeController инициализирован");
     }
 
@@ -55,10 +84,79 @@ public class EmployeeController {
         return "redirect:/";
     }
 
+    @GetMapping("/import")
+    public String showImportForm() {
+        log.debug("Отображение формы импорта сотрудников");
+        return "employee-import";
+    }
+
+    @PostMapping("/import")
+    public String importEmployees(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        log.debug("Импорт сотрудников из файла {} ({} байт)", file.getOriginalFilename(), file.getSize());
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Файл импорта пуст");
+        }
+
+        // Загруженный файл лежит во временном каталоге и читается потоком, а не целиком
+        InputStream input = file.getInputStream();
+        EmployeeRowSource rows = isCsv(file) ? EmployeeRowSource.csv(input) : EmployeeRowSource.json(input);
+        EmployeeImportReportDto report = employeeImportService.importEmployees(rows);
+        model.addAttribute("report", report);
+
+        return "employee-import";
+    }
+
+    private static boolean isCsv(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return true;
+        }
+        if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return false;
+        }
+        String contentType = file.getContentType();
+        if (contentType != null && contentType.contains("csv")) {
+            return true;
+        }
+        if (contentType != null && contentType.contains("json")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Поддерживаются файлы CSV и JSON");
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        log.debug("Выгрузка сотрудников в формате {}", exportFormat);
+
+        return ExportResponses.attachment("employees", exportFormat, acceptEncoding,
+                out -> exportService.exportEmployees(exportFormat, out));
+    }
+
     @GetMapping("/all")
-    public String showAllEmployees(Model model) {
-        log.debug("Отображение списка всех сотрудников");
-        model.addAttribute("allEmployees", employeeService.allEmployees());
+    public String showAllEmployees(@ModelAttribute("filter") EmployeeFilterDto filter,
+                                   BindingResult bindingResult,
+                                   @RequestParam(defaultValue = "20") int size,
+                                   @RequestParam(defaultValue = "lastName") String sortBy,
+                                   @RequestParam(required = false) String cursor,
+                                   Model model) {
+        log.debug("Отображение списка сотрудников: размер={}, сортировка={}, курсор={}", size, sortBy, cursor);
+        if (bindingResult.hasErrors()) {
+            throw new IllegalArgumentException("Некорректный фильтр сотрудников: "
+                    + bindingResult.getFieldErrors().stream().map(FieldError::getField).toList());
+        }
+
+        // Список листается курсором по фильтру: таблица целиком не читается и не кэшируется
+        EmployeeKeysetPageDto employeePage = employeeService.scrollEmployees(
+                filter, cursor != null && !cursor.isBlank() ? cursor : null, size, sortBy);
+        model.addAttribute("employees", employeePage.getEmployees());
+        model.addAttribute("nextCursor", employeePage.getNextCursor());
+        model.addAttribute("prevCursor", employeePage.getPrevCursor());
+        model.addAttribute("sortBy", sortBy);
+        model.addAttribute("size", size);
+        model.addAttribute("educationLevels", EducationLevel.values());
 
         return "employee-all";
     }
@@ -119,4 +217,35 @@ public class EmployeeController {
 
         return "redirect:/employees/employee-details/" + employeeFullName;
     }
+
+    @GetMapping("/transfer")
+    public String showBulkTransferForm(Model model) {
+        log.debug("Отображение формы массового перевода сотрудников");
+        model.addAttribute("availableCompanies", companyService.allCompanies());
+
+        return "employee-bulk-transfer";
+    }
+
+    @PostMapping("/transfer")
+    public String bulkTransferEmployees(@RequestParam("names") String names,
+                                        @RequestParam("newCompanyName") String newCompanyName,
+                                        Model model) {
+        List<String> employeeFullNames = names.lines()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+        if (employeeFullNames.isEmpty()) {
+            throw new IllegalArgumentException("Укажите хотя бы одного сотрудника");
+        }
+        log.debug("Массовый перевод сотрудников ({}) в компанию {}", employeeFullNames.size(), newCompanyName);
+
+        EmployeeTransferReportDto report = employeeTransferService.transferEmployees(employeeFullNames, newCompanyName);
+        model.addAttribute("report", report);
+        model.addAttribute("names", names);
+        model.addAttribute("newCompanyName", newCompanyName);
+        model.addAttribute("availableCompanies", companyService.allCompanies());
+
+        return "employee-bulk-transfer";
+    }
 }
@@ -0,0 +1,15 @@
+-- Поиск компаний: полнотекстовый индекс по названию и описанию и триграммы для названий.
+-- search_vector — генерируемая колонка, PostgreSQL пересчитывает её при каждом изменении строки.
+CREATE EXTENSION IF NOT EXISTS pg_trgm
+@@
+ALTER TABLE companies ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED
+@@
+CREATE INDEX IF NOT EXISTS idx_companies_search_vector ON companies USING GIN (search_vector)
+@@
+-- Обслуживает ILIKE '%...%' и оператор похожести % по названию
+CREATE INDEX IF NOT EXISTS idx_companies_name_trgm ON companies USING GIN (name gin_trgm_ops)
+@@
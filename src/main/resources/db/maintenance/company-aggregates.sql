@@ -0,0 +1,37 @@
+-- Начальное заполнение счётчиков сотрудников и фонда оплаты труда у компаний.
+-- Hibernate добавляет колонки со значением 0, поэтому признак выполненного заполнения —
+-- комментарий на колонке employee_count: при следующих запусках таблицы не сканируются.
+-- Колонки, созданные допускающими NULL, дозаполняются и становятся NOT NULL.
+-- Последующие расхождения исправляет фоновая сверка (CompanyAggregatesReconciler).
+DO $$
+BEGIN
+    IF col_description('companies'::regclass,
+                       (SELECT attnum FROM pg_attribute
+                        WHERE attrelid = 'companies'::regclass AND attname = 'employee_count'))
+           IS DISTINCT FROM 'aggregates backfilled' THEN
+        UPDATE companies c
+        SET employee_count = COALESCE(a.employee_count, 0),
+            total_salary   = COALESCE(a.total_salary, 0)
+        FROM companies c2
+        LEFT JOIN (SELECT company_id, count(*) AS employee_count, sum(salary) AS total_salary
+                   FROM employees
+                   GROUP BY company_id) a ON a.company_id = c2.id
+        WHERE c.id = c2.id;
+        COMMENT ON COLUMN companies.employee_count IS 'aggregates backfilled';
+    ELSIF EXISTS (SELECT 1 FROM information_schema.columns
+                  WHERE table_name = 'companies' AND column_name IN ('employee_count', 'total_salary')
+                    AND is_nullable = 'YES') THEN
+        UPDATE companies c
+        SET employee_count = (SELECT count(*) FROM employees e WHERE e.company_id = c.id),
+            total_salary   = (SELECT COALESCE(sum(salary), 0) FROM employees e WHERE e.company_id = c.id)
+        WHERE c.employee_count IS NULL OR c.total_salary IS NULL;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'companies' AND column_name IN ('employee_count', 'total_salary')
+                 AND is_nullable = 'YES') THEN
+        ALTER TABLE companies ALTER COLUMN employee_count SET NOT NULL;
+        ALTER TABLE companies ALTER COLUMN total_salary SET NOT NULL;
+    END IF;
+END
+$$
+@@
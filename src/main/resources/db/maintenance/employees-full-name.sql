@@ -0,0 +1,13 @@
+-- Заполнение ключа поиска по полному имени для строк, созданных до появления колонки.
+-- Значение совпадает с прежним условием CONCAT(first_name, ' ', last_name).
+-- После заполнения колонка становится NOT NULL, и при следующих запусках таблица не сканируется.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'employees' AND column_name = 'full_name' AND is_nullable = 'YES') THEN
+        UPDATE employees SET full_name = first_name || ' ' || last_name WHERE full_name IS NULL;
+        ALTER TABLE employees ALTER COLUMN full_name SET NOT NULL;
+    END IF;
+END
+$$
+@@
@@ -0,0 +1,42 @@
+-- Перевод первичных и внешних ключей с varchar(255) на нативный uuid (16 байт вместо 37).
+-- Выполняется один раз для баз, созданных до перехода: Hibernate (ddl-auto=update) типы
+-- существующих колонок не меняет. Внешние ключи на время смены типа снимаются и затем
+-- создаются заново по сохранённым определениям; индексы PostgreSQL перестраивает сам.
+-- Старые значения — UUIDv4 в текстовом виде, поэтому приводятся через ::uuid без потерь.
+DO $$
+DECLARE
+    fk RECORD;
+    col RECORD;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'companies'
+                     AND column_name = 'id' AND data_type = 'character varying') THEN
+        RETURN;
+    END IF;
+
+    CREATE TEMP TABLE uuid_migration_fks ON COMMIT DROP AS
+        SELECT conrelid::regclass AS tbl, conname, pg_get_constraintdef(oid) AS def
+        FROM pg_constraint
+        WHERE contype = 'f'
+          AND confrelid IN ('companies'::regclass, 'users'::regclass, 'roles'::regclass);
+
+    FOR fk IN SELECT * FROM uuid_migration_fks LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+    END LOOP;
+
+    FOR col IN SELECT table_name, column_name FROM information_schema.columns
+               WHERE table_schema = current_schema() AND data_type = 'character varying'
+                 AND (table_name, column_name) IN (('companies', 'id'), ('employees', 'id'),
+                                                   ('employees', 'company_id'), ('users', 'id'),
+                                                   ('roles', 'id'), ('users_roles', 'user_id'),
+                                                   ('users_roles', 'role_id')) LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE uuid USING %I::uuid',
+                       col.table_name, col.column_name, col.column_name);
+    END LOOP;
+
+    FOR fk IN SELECT * FROM uuid_migration_fks LOOP
+        EXECUTE format('ALTER TABLE %s ADD CONSTRAINT %I %s', fk.tbl, fk.conname, fk.def);
+    END LOOP;
+END
+$$
+@@
@@ -0,0 +1,46 @@
+package ru.rutmiit.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.rutmiit.models.enums.EducationLevel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class EmployeeFilterDtoTest {
+
+    @Test
+    void separatorInsideValueDoesNotCollide() {
+        EmployeeFilterDto first = new EmployeeFilterDto();
+        first.setCompanyName("a|b");
+        EmployeeFilterDto second = new EmployeeFilterDto();
+        second.setCompanyName("a");
+        second.setJobTitle("b");
+
+        assertNotEquals(first.cacheKey(), second.cacheKey());
+    }
+
+    @Test
+    void valueDoesNotShiftIntoNextField() {
+        EmployeeFilterDto first = new EmployeeFilterDto();
+        first.setCompanyName("1:x");
+        EmployeeFilterDto second = new EmployeeFilterDto();
+        second.setJobTitle("x");
+
+        assertNotEquals(first.cacheKey(), second.cacheKey());
+    }
+
+    @Test
+    void equalFiltersGiveEqualKeys() {
+        EmployeeFilterDto first = new EmployeeFilterDto();
+        first.setCompanyName(" Ромашка ");
+        first.setEducationLevel(EducationLevel.values()[0]);
+        first.setMinSalary(1000.0);
+        EmployeeFilterDto second = new EmployeeFilterDto();
+        second.setCompanyName("Ромашка");
+        second.setJobTitle("  ");
+        second.setEducationLevel(EducationLevel.values()[0]);
+        second.setMinSalary(1000.0);
+
+        assertEquals(first.cacheKey(), second.cacheKey());
+    }
+}
@@ -0,0 +1,180 @@
+package ru.rutmiit.services;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.rutmiit.models.enums.EducationLevel;
+import ru.rutmiit.models.enums.UserRoles;
+import ru.rutmiit.support.QueryCountingDataSource;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+import ru.rutmiit.utils.cache.CacheNamespaces;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+import ru.rutmiit.utils.cache.NegativeLookupCache;
+import ru.rutmiit.utils.ids.UuidV7Generator;
+import ru.rutmiit.utils.mapping.CompanyMapper;
+import ru.rutmiit.utils.mapping.EmployeeMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Общий контекст тестов числа SQL-запросов сервисов: настоящие сервисы и репозитории
+ * поверх встроенного PostgreSQL (поиск и счётчики компаний используют его SQL),
+ * источник данных обёрнут в {@link QueryCountingDataSource}.
+ * <p>
+ * Кэширование не включено, а Redis-зависимости заменены заглушками: проверяется путь
+ * промаха кэша. Перед каждым тестом база заполняется заново:
+ * <ul>
+ *     <li>«Альфа» (Москва) — Иван Петров и Пётр Сидоров;</li>
+ *     <li>«Бета» (Москва) — Анна Смирнова;</li>
+ *     <li>«Гамма» (Казань) — без сотрудников;</li>
+ *     <li>пользователь ivan с ролью USER.</li>
+ * </ul>
+ * Размер пачки удаления сотрудников — 1, чтобы «Альфа» удалялась пачками.
+ */
+@SpringBootTest(classes = AbstractServiceQueryCountTest.Config.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                // application.properties приложения не читается
+                "spring.config.name=query-count-test",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.open-in-view=false",
+                "spring.jpa.defer-datasource-initialization=true",
+                "spring.sql.init.mode=always",
+                "spring.sql.init.separator=@@",
+                "spring.sql.init.data-locations=classpath:db/maintenance/companies-search.sql",
+                "app.company.delete.chunk-size=1",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"})
+abstract class AbstractServiceQueryCountTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @MockitoBean
+    protected CacheInvalidator cacheInvalidator;
+
+    @MockitoBean
+    protected CacheNamespaces cacheNamespaces;
+
+    @MockitoBean
+    protected NegativeLookupCache negativeLookups;
+
+    @MockitoBean
+    protected ExistenceFilters existenceFilters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.execute("TRUNCATE users_roles, users, roles, employees, companies");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        UUID alpha = insertCompany("Альфа", "Москва", 1_000_000, 2, 220_000, now);
+        UUID beta = insertCompany("Бета", "Москва", 2_000_000, 1, 90_000, now);
+        insertCompany("Гамма", "Казань", 3_000_000, 0, 0, now);
+        insertEmployee("Иван", "Петров", 100_000, alpha, now);
+        insertEmployee("Пётр", "Сидоров", 120_000, alpha, now);
+        insertEmployee("Анна", "Смирнова", 90_000, beta, now);
+
+        UUID role = UuidV7Generator.next();
+        jdbcTemplate.update("INSERT INTO roles (id, name, created_at, updated_at) VALUES (?, ?, ?, ?)",
+                role, UserRoles.USER.name(), now, now);
+        UUID user = UuidV7Generator.next();
+        jdbcTemplate.update("INSERT INTO users (id, username, password, email, full_name, age, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", user, "ivan", "{noop}secret", "ivan@example.com", "Иван Петров", 30, now, now);
+        jdbcTemplate.update("INSERT INTO users_roles (user_id, role_id) VALUES (?, ?)", user, role);
+    }
+
+    private UUID insertCompany(String name, String town, double budget, int employeeCount, double totalSalary,
+                               Timestamp now) {
+        UUID id = UuidV7Generator.next();
+        jdbcTemplate.update("INSERT INTO companies " +
+                        "(id, name, town, description, budget, employee_count, total_salary, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                id, name, town, "Компания " + name, budget, employeeCount, totalSalary, now, now);
+        return id;
+    }
+
+    private void insertEmployee(String firstName, String lastName, double salary, UUID companyId, Timestamp now) {
+        jdbcTemplate.update("INSERT INTO employees " +
+                        "(id, first_name, last_name, full_name, education_level, job_title, birth_date, salary, " +
+                        "company_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                UuidV7Generator.next(), firstName, lastName, firstName + " " + lastName,
+                EducationLevel.Bachelor.name(), "Инженер", Date.valueOf(LocalDate.of(1990, 1, 1)), salary,
+                companyId, now, now);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder()
+                    .setServerConfig("fsync", "off")
+                    .setServerConfig("synchronous_commit", "off")
+                    .start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+            RedisAutoConfiguration.class,
+            RedisRepositoriesAutoConfiguration.class,
+            SecurityAutoConfiguration.class,
+            UserDetailsServiceAutoConfiguration.class})
+    @EntityScan("ru.rutmiit.models.entities")
+    @EnableJpaRepositories("ru.rutmiit.repositories")
+    @EnableJpaAuditing
+    @Import({CompanyMapper.class, EmployeeMapper.class, CompanyServiceImpl.class, EmployeeServiceImpl.class,
+            AuthServiceImpl.class, CompanyDeletionServiceImpl.class})
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor queryCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)
+                            ? new QueryCountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.rutmiit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.rutmiit.dto.UserRegistrationDto;
+import ru.rutmiit.utils.cache.ExistenceFilters;
+
+import static org.mockito.Mockito.when;
+import static ru.rutmiit.support.QueryCountAssertions.assertQueries;
+
+class AuthServiceQueryCountTest extends AbstractServiceQueryCountTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Test
+    void registerWithEmailUnknownToFilter() {
+        // Фильтр Блума отвечает «точно нет»: роль, INSERT пользователя и связи с ролью
+        assertQueries(3, 1, () -> authService.register(registration()));
+    }
+
+    @Test
+    void registerWithEmailPossiblyKnownToFilter() {
+        when(existenceFilters.mightContain(ExistenceFilters.Kind.EMAIL, "olga@example.com")).thenReturn(true);
+
+        // Дополнительно проверяется email в базе
+        assertQueries(4, 1, () -> authService.register(registration()));
+    }
+
+    @Test
+    void getUser() {
+        // EAGER-роли догружаются вторым запросом; строк — пользователь и его роль
+        assertQueries(2, 2, () -> authService.getUser("ivan"));
+    }
+
+    private static UserRegistrationDto registration() {
+        UserRegistrationDto registration = new UserRegistrationDto();
+        registration.setUsername("olga");
+        registration.setFullname("Ольга Иванова");
+        registration.setEmail("olga@example.com");
+        registration.setAge(28);
+        registration.setPassword("secret12");
+        registration.setConfirmPassword("secret12");
+        return registration;
+    }
+}
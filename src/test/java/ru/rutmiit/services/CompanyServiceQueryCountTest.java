@@ -0,0 +1,109 @@
+package ru.rutmiit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.rutmiit.dto.AddCompanyDto;
+import ru.rutmiit.models.exceptions.CompanyNotFoundException;
+import ru.rutmiit.utils.cache.CacheInvalidator;
+import ru.rutmiit.utils.cache.NegativeLookupCache;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static ru.rutmiit.support.QueryCountAssertions.assertQueries;
+
+class CompanyServiceQueryCountTest extends AbstractServiceQueryCountTest {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Test
+    void addCompany() {
+        AddCompanyDto company = new AddCompanyDto();
+        company.setName("Дельта");
+        company.setTown("Казань");
+        company.setDescription("Новая компания");
+        company.setBudget(500_000.0);
+
+        // id генерируется в приложении: только INSERT
+        assertQueries(1, 0, () -> companyService.addCompany(company));
+    }
+
+    @Test
+    void allCompanies() {
+        assertQueries(1, 3, () -> companyService.allCompanies());
+    }
+
+    @Test
+    void refreshAllCompanies() {
+        assertQueries(1, 3, () -> companyService.refreshAllCompanies());
+    }
+
+    @Test
+    void allCompaniesPaginated() {
+        // Страница заполнена целиком, поэтому выполняется и count
+        assertQueries(2, 3, () -> companyService.allCompaniesPaginated(PageRequest.of(0, 2, Sort.by("name"))));
+    }
+
+    @Test
+    void scrollCompanies() {
+        // Выбирается size + 1 строк, чтобы узнать о следующей странице
+        assertQueries(1, 3, () -> companyService.scrollCompanies(null, 2, "name"));
+    }
+
+    @Test
+    void companyCountIsQueriedOncePerNamespaceVersion() {
+        when(cacheNamespaces.version(CacheInvalidator.COMPANIES_NAMESPACE)).thenReturn(System.nanoTime());
+
+        assertQueries(1, 1, () -> companyService.companyCount());
+        assertQueries(0, 0, () -> companyService.companyCount());
+    }
+
+    @Test
+    void searchCompanies() {
+        // Результатов не меньше размера страницы: запрос и count
+        assertQueries(2, 2, () -> companyService.searchCompanies("Альфа", PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void findByTown() {
+        assertQueries(1, 2, () -> companyService.findByTown("Москва"));
+    }
+
+    @Test
+    void findByBudgetGreaterThan() {
+        assertQueries(1, 2, () -> companyService.findByBudgetGreaterThan(1_500_000.0));
+    }
+
+    @Test
+    void companyDetails() {
+        // Счётчики сотрудников хранятся в строке компании, коллекция employees не загружается
+        assertQueries(1, 1, () -> companyService.companyDetails("Альфа"));
+    }
+
+    @Test
+    void refreshCompanyDetails() {
+        assertQueries(1, 1, () -> companyService.refreshCompanyDetails("Альфа"));
+    }
+
+    @Test
+    void companyDetailsOfKnownMissingCompanySkipsDatabase() {
+        when(negativeLookups.isKnownMissing(NegativeLookupCache.COMPANY, "Омега")).thenReturn(true);
+
+        assertQueries(0, 0, () -> assertThrows(CompanyNotFoundException.class,
+                () -> companyService.companyDetails("Омега")));
+    }
+
+    @Test
+    void removeCompany() {
+        // Проверка, поиск, блокировка строки компании, удаление сотрудников и компании
+        assertQueries(5, 3, () -> companyService.removeCompany("Бета"));
+    }
+
+    @Test
+    void removeCompanyInChunks() {
+        // Две пачки по одному сотруднику и пустая третья: DELETE ... RETURNING и UPDATE счётчиков в каждой
+        assertQueries(11, 5, () -> companyService.removeCompany("Альфа"));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.rutmiit.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.rutmiit.dto.AddEmployeeDto;
+import ru.rutmiit.dto.EmployeeFilterDto;
+import ru.rutmiit.models.enums.EducationLevel;
+
+import java.time.LocalDate;
+
+import static ru.rutmiit.support.QueryCountAssertions.assertQueries;
+
+class EmployeeServiceQueryCountTest extends AbstractServiceQueryCountTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    void addEmployee() {
+        AddEmployeeDto employee = new AddEmployeeDto();
+        employee.setFirstName("Олег");
+        employee.setLastName("Кузнецов");
+        employee.setEducationLevel(EducationLevel.Master);
+        employee.setJobTitle("Аналитик");
+        employee.setBirthDate(LocalDate.of(1995, 3, 1));
+        employee.setSalary(110_000.0);
+        employee.setCompanyName("Бета");
+
+        // Поиск компании, INSERT, счётчики компании
+        assertQueries(3, 1, () -> employeeService.addEmployee(employee));
+    }
+
+    @Test
+    void allEmployees() {
+        assertQueries(1, 3, () -> employeeService.allEmployees());
+    }
+
+    @Test
+    void scrollEmployees() {
+        // Выбирается size + 1 строк, чтобы узнать о следующей странице
+        assertQueries(1, 3, () -> employeeService.scrollEmployees(new EmployeeFilterDto(), null, 2, "lastName"));
+    }
+
+    @Test
+    void scrollEmployeesOfCompany() {
+        EmployeeFilterDto filter = new EmployeeFilterDto();
+        filter.setCompanyName("Альфа");
+
+        // Компания присоединяется в том же запросе
+        assertQueries(1, 2, () -> employeeService.scrollEmployees(filter, null, 2, "lastName"));
+    }
+
+    @Test
+    void employeeInfo() {
+        // Компания загружается в том же запросе (JOIN FETCH)
+        assertQueries(1, 1, () -> employeeService.employeeInfo("Иван Петров"));
+    }
+
+    @Test
+    void fireEmployee() {
+        // Поиск с блокировкой строки, DELETE по id, счётчики компании, название компании для сброса кэша
+        assertQueries(4, 2, () -> employeeService.fireEmployee("Анна Смирнова"));
+    }
+
+    @Test
+    void transferEmployee() {
+        // Поиск сотрудника с блокировкой, новой и прежней компании, UPDATE сотрудника,
+        // счётчики старой и новой компании
+        assertQueries(6, 3, () -> employeeService.transferEmployee("Анна Смирнова", "Альфа"));
+    }
+
+    @Test
+    void transferEmployeeToSameCompanyWritesNothing() {
+        assertQueries(2, 2, () -> employeeService.transferEmployee("Анна Смирнова", "Бета"));
+    }
+}
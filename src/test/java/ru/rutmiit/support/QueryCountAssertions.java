@@ -0,0 +1,22 @@
+package ru.rutmiit.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка точного числа SQL-запросов и прочитанных строк одного вызова.
+ * Лишний запрос (ленивая загрузка при маппинге, EAGER-коллекция, N+1) или
+ * пропавший запрос одинаково роняют тест: число меняется только вместе с ожиданием.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void assertQueries(long statements, long rows, Runnable call) {
+        QueryCounter.Snapshot start = QueryCounter.snapshot();
+        call.run();
+        QueryCounter.Snapshot used = QueryCounter.snapshot().since(start);
+        assertEquals(statements, used.statements(), "SQL-запросов");
+        assertEquals(rows, used.rows(), "прочитанных строк");
+    }
+}
@@ -0,0 +1,40 @@
+package ru.rutmiit.support;
+
+/**
+ * Счётчики SQL-запросов и прочитанных строк текущего потока.
+ * <p>
+ * Счётчики только растут: вызов измеряется разностью {@link #snapshot()} до и после него.
+ * Увеличивает их {@link QueryCountingDataSource}; без него снимки всегда нулевые.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Counts> COUNTS = ThreadLocal.withInitial(Counts::new);
+
+    private QueryCounter() {
+    }
+
+    public static Snapshot snapshot() {
+        Counts counts = COUNTS.get();
+        return new Snapshot(counts.statements, counts.rows);
+    }
+
+    static void statementExecuted() {
+        COUNTS.get().statements++;
+    }
+
+    static void rowRead() {
+        COUNTS.get().rows++;
+    }
+
+    public record Snapshot(long statements, long rows) {
+
+        public Snapshot since(Snapshot start) {
+            return new Snapshot(statements - start.statements, rows - start.rows);
+        }
+    }
+
+    private static final class Counts {
+        private long statements;
+        private long rows;
+    }
+}
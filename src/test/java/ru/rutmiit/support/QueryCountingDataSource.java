@@ -0,0 +1,131 @@
+package ru.rutmiit.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Источник данных, считающий в {@link QueryCounter} выполненные запросы и прочитанные
+ * строки. Видит и запросы Hibernate, и запросы через {@code JdbcTemplate}.
+ * <p>
+ * Запросом считается каждый вызов {@code execute*} у {@link Statement}, в том числе
+ * {@code executeBatch}; строкой — каждый успешный {@link ResultSet#next()}.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(), new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password), new ConnectionHandler());
+    }
+
+    private static <T> T wrap(Class<T> type, Object target, Handler handler) {
+        handler.target = target;
+        Object proxy = Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+        handler.proxy = proxy;
+        return type.cast(proxy);
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+        Object target;
+        Object proxy;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "QueryCounting[" + target + "]";
+                default -> {
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                    yield intercept(method, result);
+                }
+            };
+        }
+
+        abstract Object intercept(Method method, Object result);
+    }
+
+    private static final class ConnectionHandler extends Handler {
+
+        @Override
+        Object intercept(Method method, Object result) {
+            if (result instanceof Statement statement) {
+                @SuppressWarnings("unchecked")
+                Class<Statement> type = (Class<Statement>) method.getReturnType();
+                return wrap(type, statement, new StatementHandler((Connection) proxy));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private final Connection connection;
+
+        StatementHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().startsWith("execute")) {
+                QueryCounter.statementExecuted();
+            }
+            return super.invoke(proxy, method, args);
+        }
+
+        @Override
+        Object intercept(Method method, Object result) {
+            return switch (method.getName()) {
+                case "executeQuery", "getResultSet" -> result == null
+                        ? null
+                        : wrap(ResultSet.class, result, new ResultSetHandler((Statement) proxy));
+                case "getConnection" -> connection;
+                default -> result;
+            };
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final Statement statement;
+
+        ResultSetHandler(Statement statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        Object intercept(Method method, Object result) {
+            return switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        QueryCounter.rowRead();
+                    }
+                    yield result;
+                }
+                case "getStatement" -> statement;
+                default -> result;
+            };
+        }
+    }
+}
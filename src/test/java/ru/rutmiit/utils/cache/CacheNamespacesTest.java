@@ -0,0 +1,86 @@
+package ru.rutmiit.utils.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheNamespacesTest {
+
+    private static final String NAMESPACE = "companies";
+    private static final String COUNTER = "cache:ns:" + NAMESPACE;
+
+    private FakeRedis redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+    }
+
+    @Test
+    void bumpIncrementsAndPublishesVersion() {
+        CacheNamespaces namespaces = namespaces(breaker(1), Duration.ofMinutes(1));
+
+        assertEquals(0L, namespaces.version(NAMESPACE));
+        namespaces.bump(NAMESPACE);
+
+        assertEquals(1L, namespaces.version(NAMESPACE));
+        assertEquals(1L, redis.counter(COUNTER));
+        assertEquals(List.of(NAMESPACE + "|1"), redis.published());
+    }
+
+    @Test
+    void failedBumpAdvancesLocallyAndIsReplayedOnRecovery() {
+        RedisCircuitBreaker breaker = breaker(1);
+        CacheNamespaces namespaces = namespaces(breaker, Duration.ofMinutes(1));
+        namespaces.bump(NAMESPACE);
+
+        redis.setDown(true);
+        namespaces.bump(NAMESPACE);
+        assertTrue(breaker.isOpen());
+        // Старые ключи этого узла недостижимы сразу, в Redis версия ещё прежняя
+        assertEquals(2L, namespaces.version(NAMESPACE));
+        assertEquals(1L, redis.counter(COUNTER));
+
+        redis.setDown(false);
+        breaker.probe();
+
+        assertEquals(2L, redis.counter(COUNTER));
+        assertEquals(List.of(NAMESPACE + "|1", NAMESPACE + "|2"), redis.published());
+        assertEquals(2L, namespaces.version(NAMESPACE));
+    }
+
+    @Test
+    void failedBumpIsReplayedOnRefreshWhileBreakerStaysClosed() {
+        // Единичный сбой не размыкает цепь, и восстановления не будет
+        RedisCircuitBreaker breaker = breaker(3);
+        CacheNamespaces namespaces = namespaces(breaker, Duration.ZERO);
+
+        redis.setDown(true);
+        namespaces.bump(NAMESPACE);
+        assertEquals(1L, namespaces.version(NAMESPACE));
+
+        redis.setDown(false);
+        assertEquals(1L, namespaces.version(NAMESPACE));
+        assertEquals(1L, redis.counter(COUNTER));
+        assertEquals(List.of(NAMESPACE + "|1"), redis.published());
+
+        // Повторное чтение берёт версию уже из Redis
+        assertEquals(1L, namespaces.version(NAMESPACE));
+        assertEquals(1, redis.published().size());
+    }
+
+    private RedisCircuitBreaker breaker(int failureThreshold) {
+        // Нулевое время размыкания: проверка пингует Redis при первом же вызове probe()
+        return new RedisCircuitBreaker(redis.connectionFactory(), failureThreshold, Duration.ofSeconds(1),
+                Duration.ZERO);
+    }
+
+    private CacheNamespaces namespaces(RedisCircuitBreaker breaker, Duration refreshInterval) {
+        return new CacheNamespaces(redis.stringRedisTemplate(), "cache:namespaces", refreshInterval, breaker);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.rutmiit.utils.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheStatisticsTest {
+
+    @Test
+    void familiesFollowKeyPrefixesSetByCode() {
+        assertEquals("companies::all", CacheStatistics.familyOf("companies", "all"));
+        assertEquals("companyPages::page:*", CacheStatistics.familyOf("companyPages", "page:0:10:name: ASC:v3"));
+        assertEquals("employeePages::keyset:*", CacheStatistics.familyOf("employeePages", "keyset:-:lastName:20:first:v1"));
+        assertEquals("companySearch::search:*", CacheStatistics.familyOf("companySearch", "search:альфа:0:10:v2"));
+        assertEquals("company::*", CacheStatistics.familyOf("company", "Альфа"));
+    }
+
+    @Test
+    void keysFromRequestsDoNotCreateFamilies() {
+        CacheStatistics statistics = new CacheStatistics(new SimpleMeterRegistry(), 100);
+        for (int i = 0; i < 1000; i++) {
+            // Название компании из URL может содержать двоеточие
+            statistics.recordMiss("company", "company-" + i + ":x");
+        }
+
+        assertEquals(Set.of("company::*"), statistics.snapshot().keySet());
+        assertEquals(1000, statistics.snapshot().get("company::*").misses());
+    }
+}
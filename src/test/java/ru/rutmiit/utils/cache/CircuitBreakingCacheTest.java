@@ -0,0 +1,153 @@
+package ru.rutmiit.utils.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class CircuitBreakingCacheTest {
+
+    private static final String CACHE = "companies";
+    private static final int MAX_PENDING_EVICTIONS = 3;
+
+    private FakeRedis redis;
+    private RedisCircuitBreaker breaker;
+    private CircuitBreakingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        // Цепь размыкается после первого же сбоя и сразу готова к проверке
+        breaker = new RedisCircuitBreaker(redis.connectionFactory(), 1, Duration.ofMillis(200), Duration.ZERO);
+        cache = new CircuitBreakingCache(redis.cache(CACHE), breaker, MAX_PENDING_EVICTIONS);
+    }
+
+    @Test
+    void readsBecomeMissesWhenRedisFails() {
+        cache.put("a", "A");
+        redis.setDown(true);
+
+        assertNull(cache.get("a"));
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    void readsBecomeMissesWhenRedisIsSlow() {
+        cache.put("a", "A");
+        redis.setLatency(Duration.ofMillis(400));
+
+        // Медленный ответ ещё возвращается, но размыкает цепь
+        assertEquals("A", cache.get("a").get());
+        assertTrue(breaker.isOpen());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void loaderRunsWithoutRedisWhileOpen() {
+        trip();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("B", cache.get("b", () -> {
+            loads.incrementAndGet();
+            return "B";
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void deferredEvictionsAreReplayedOnRecovery() {
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        trip();
+
+        cache.evict("a");
+        // Запись при разомкнутой цепи тоже не дошла до Redis: старое значение надо удалить
+        cache.put("b", "B2");
+
+        redis.setDown(false);
+        breaker.probe();
+
+        assertNull(redis.stored(CACHE, "a"));
+        assertNull(redis.stored(CACHE, "b"));
+        assertEquals("C", redis.stored(CACHE, "c"));
+    }
+
+    @Test
+    void tooManyPendingEvictionsClearWholeCacheOnRecovery() {
+        cache.put("a", "A");
+        cache.put("untouched", "U");
+        trip();
+
+        for (int i = 0; i <= MAX_PENDING_EVICTIONS; i++) {
+            cache.evict("key-" + i);
+        }
+
+        redis.setDown(false);
+        breaker.probe();
+
+        assertNull(redis.stored(CACHE, "a"));
+        assertNull(redis.stored(CACHE, "untouched"));
+    }
+
+    @Test
+    void clearWhileOpenIsReplayedOnRecovery() {
+        cache.put("a", "A");
+        trip();
+
+        cache.clear();
+        redis.setDown(false);
+        breaker.probe();
+
+        assertNull(redis.stored(CACHE, "a"));
+    }
+
+    @Test
+    void localCacheServesReadsWhileOpen() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(
+                redis.cacheManager(),
+                mock(StringRedisTemplate.class),
+                "cache-evictions",
+                100,
+                Duration.ofMinutes(5),
+                Duration.ofMinutes(1),
+                new CacheStatistics(new SimpleMeterRegistry(), 100),
+                new HotKeyTracker(mock(StringRedisTemplate.class), breaker, 10),
+                breaker,
+                MAX_PENDING_EVICTIONS);
+        Cache twoLevel = manager.getCache("companyDetails");
+        twoLevel.put("a", "A");
+
+        redis.setDown(true);
+        assertNull(twoLevel.get("missing"));
+        assertTrue(breaker.isOpen());
+
+        // Redis недоступен, но значение уже лежит в L1
+        assertEquals("A", twoLevel.get("a").get());
+        AtomicInteger loads = new AtomicInteger();
+        twoLevel.get("b", () -> {
+            loads.incrementAndGet();
+            return "B";
+        });
+        assertEquals("B", twoLevel.get("b", () -> {
+            loads.incrementAndGet();
+            return "B2";
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    private void trip() {
+        redis.setDown(true);
+        cache.get("trip");
+        assertTrue(breaker.isOpen());
+    }
+}
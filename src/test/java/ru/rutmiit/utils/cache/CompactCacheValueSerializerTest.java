@@ -0,0 +1,72 @@
+package ru.rutmiit.utils.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import ru.rutmiit.config.RedisConfig;
+import ru.rutmiit.dto.CompanyKeysetPageDto;
+import ru.rutmiit.dto.EmployeeKeysetPageDto;
+import ru.rutmiit.dto.ShowCompanyInfoDto;
+import ru.rutmiit.dto.ShowEmployeeInfoDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CompactCacheValueSerializerTest {
+
+    private final CompactCacheValueSerializer serializer = new CompactCacheValueSerializer(
+            new GenericJackson2JsonRedisSerializer(RedisConfig.cacheObjectMapper()), 1024);
+
+    @Test
+    void companyKeysetPageUsesCompactFormat() {
+        ShowCompanyInfoDto company = new ShowCompanyInfoDto();
+        company.setName("Ромашка");
+        company.setTown("Москва");
+        CompanyKeysetPageDto page = new CompanyKeysetPageDto(new ArrayList<>(List.of(company)), "next", null);
+
+        byte[] bytes = serializer.serialize(page);
+        CompanyKeysetPageDto restored = (CompanyKeysetPageDto) serializer.deserialize(bytes);
+
+        assertEquals(CompactCacheValueSerializer.MAGIC, bytes[0]);
+        assertEquals("Ромашка", restored.getCompanies().get(0).getName());
+        assertEquals("Москва", restored.getCompanies().get(0).getTown());
+        assertNull(restored.getCompanies().get(0).getDescription());
+        assertEquals("next", restored.getNextCursor());
+        assertNull(restored.getPrevCursor());
+    }
+
+    @Test
+    void employeeKeysetPageUsesCompactFormat() {
+        ShowEmployeeInfoDto employee = new ShowEmployeeInfoDto();
+        employee.setFirstName("Иван");
+        employee.setLastName("Петров");
+        employee.setBirthDate(LocalDate.of(1990, 5, 17));
+        // Много записей, чтобы тело ушло через deflate
+        List<ShowEmployeeInfoDto> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(employee);
+        }
+        EmployeeKeysetPageDto page = new EmployeeKeysetPageDto(employees, null, "prev");
+
+        byte[] bytes = serializer.serialize(page);
+        EmployeeKeysetPageDto restored = (EmployeeKeysetPageDto) serializer.deserialize(bytes);
+
+        assertEquals(CompactCacheValueSerializer.MAGIC, bytes[0]);
+        assertEquals(100, restored.getEmployees().size());
+        assertEquals("Петров", restored.getEmployees().get(99).getLastName());
+        assertEquals(LocalDate.of(1990, 5, 17), restored.getEmployees().get(0).getBirthDate());
+        assertNull(restored.getNextCursor());
+        assertEquals("prev", restored.getPrevCursor());
+    }
+
+    @Test
+    void entryOfOtherSchemaVersionIsMiss() {
+        byte[] bytes = serializer.serialize(new CompanyKeysetPageDto(new ArrayList<>(), null, null));
+        bytes[1] = (byte) (CompactCacheValueSerializer.SCHEMA_VERSION - 1);
+
+        assertNull(serializer.deserialize(bytes));
+    }
+}
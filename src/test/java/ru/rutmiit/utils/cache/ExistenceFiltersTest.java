@@ -0,0 +1,83 @@
+package ru.rutmiit.utils.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.rutmiit.repositories.CompanyRepository;
+import ru.rutmiit.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExistenceFiltersTest {
+
+    private FakeRedis redis;
+    private UserRepository userRepository;
+    private CompanyRepository companyRepository;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        userRepository = mock(UserRepository.class);
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.findAllUsernames()).thenReturn(List.of("ivan"));
+        when(userRepository.findAllEmails()).thenReturn(List.of("ivan@example.com"));
+        companyRepository = mock(CompanyRepository.class);
+        when(companyRepository.count()).thenReturn(0L);
+        when(companyRepository.findAllNames()).thenReturn(List.of());
+    }
+
+    @Test
+    void builtFilterAnswersAbsentWithoutDatabase() {
+        ExistenceFilters filters = filters(breaker(), Duration.ofHours(1));
+        assertTrue(filters.mightContain(ExistenceFilters.Kind.USERNAME, "petr"));
+
+        filters.rebuild();
+
+        assertTrue(filters.mightContain(ExistenceFilters.Kind.USERNAME, "ivan"));
+        assertFalse(filters.mightContain(ExistenceFilters.Kind.USERNAME, "petr"));
+    }
+
+    @Test
+    void filterIsNotTrustedAfterRedisOutageUntilRebuild() {
+        RedisCircuitBreaker breaker = breaker();
+        ExistenceFilters filters = filters(breaker, Duration.ofHours(1));
+        filters.rebuild();
+
+        redis.setDown(true);
+        filters.add(ExistenceFilters.Kind.USERNAME, "anna");
+        assertTrue(breaker.isOpen());
+        assertTrue(filters.mightContain(ExistenceFilters.Kind.USERNAME, "petr"));
+
+        // Сообщения других узлов за время сбоя потеряны — фильтр этого узла неполон
+        redis.setDown(false);
+        breaker.probe();
+        assertFalse(breaker.isOpen());
+        assertTrue(filters.mightContain(ExistenceFilters.Kind.USERNAME, "petr"));
+
+        filters.rebuild();
+        assertFalse(filters.mightContain(ExistenceFilters.Kind.USERNAME, "petr"));
+    }
+
+    @Test
+    void expiredFilterIsNotTrusted() {
+        ExistenceFilters filters = filters(breaker(), Duration.ZERO);
+        filters.rebuild();
+
+        assertTrue(filters.mightContain(ExistenceFilters.Kind.USERNAME, "petr"));
+    }
+
+    private RedisCircuitBreaker breaker() {
+        // Нулевое время размыкания: проверка пингует Redis при первом же вызове probe()
+        return new RedisCircuitBreaker(redis.connectionFactory(), 1, Duration.ofSeconds(1), Duration.ZERO);
+    }
+
+    private ExistenceFilters filters(RedisCircuitBreaker breaker, Duration maxAge) {
+        return new ExistenceFilters(userRepository, companyRepository, redis.stringRedisTemplate(), breaker,
+                "lookup:bloom", 1000, 0.01, maxAge);
+    }
+}
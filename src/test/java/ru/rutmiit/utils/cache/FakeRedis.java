@@ -0,0 +1,266 @@
+package ru.rutmiit.utils.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Поддельный Redis для тестов кэша: значения хранятся в памяти, а каждая команда
+ * (включая PING проверки автомата) выполняется с заданной задержкой или падает,
+ * пока сервер «недоступен».
+ */
+class FakeRedis {
+
+    private final ConcurrentMap<String, RemoteCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> counters = new ConcurrentHashMap<>();
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, Double>> sortedSets = new ConcurrentHashMap<>();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile boolean down;
+    private volatile Runnable afterPut = () -> {
+    };
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    void setDown(boolean down) {
+        this.down = down;
+    }
+
+    /**
+     * Действие сразу после записи значения — например, сброс, пришедший во время записи.
+     */
+    void afterPut(Runnable action) {
+        this.afterPut = action;
+    }
+
+    Cache cache(String name) {
+        return caches.computeIfAbsent(name, RemoteCache::new);
+    }
+
+    /**
+     * Содержимое кэша без задержек и сбоев — для проверок в тестах.
+     */
+    Object stored(String cacheName, Object key) {
+        Cache.ValueWrapper wrapper = caches.computeIfAbsent(cacheName, RemoteCache::new).store.get(key);
+        return wrapper != null ? wrapper.get() : null;
+    }
+
+    /**
+     * Значение счётчика без задержек и сбоев — для проверок в тестах.
+     */
+    long counter(String key) {
+        return counters.getOrDefault(key, 0L);
+    }
+
+    /**
+     * Разосланные через pub/sub сообщения в порядке отправки.
+     */
+    List<String> published() {
+        return List.copyOf(published);
+    }
+
+    CacheManager cacheManager() {
+        return new CacheManager() {
+            @Override
+            public Cache getCache(String name) {
+                return cache(name);
+            }
+
+            @Override
+            public Collection<String> getCacheNames() {
+                return Set.copyOf(caches.keySet());
+            }
+        };
+    }
+
+    RedisConnectionFactory connectionFactory() {
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.ping()).thenAnswer(invocation -> {
+            command();
+            return "PONG";
+        });
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        when(factory.getConnection()).thenReturn(connection);
+        return factory;
+    }
+
+    /**
+     * Шаблон со счётчиками (GET и INCR), sorted set и pub/sub поверх того же поддельного сервера.
+     */
+    @SuppressWarnings("unchecked")
+    StringRedisTemplate stringRedisTemplate() {
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(values.increment(anyString())).thenAnswer(invocation -> {
+            command();
+            return counters.merge(invocation.getArgument(0), 1L, Long::sum);
+        });
+        when(values.get(any())).thenAnswer(invocation -> {
+            command();
+            Long value = counters.get(invocation.<String>getArgument(0));
+            return value != null ? String.valueOf(value) : null;
+        });
+        ZSetOperations<String, String> zset = mock(ZSetOperations.class);
+        when(zset.incrementScore(anyString(), anyString(), anyDouble())).thenAnswer(invocation -> {
+            command();
+            return sortedSet(invocation.getArgument(0))
+                    .merge(invocation.getArgument(1), invocation.<Double>getArgument(2), Double::sum);
+        });
+        when(zset.removeRange(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            command();
+            List<String> ascending = ranked(invocation.getArgument(0), false);
+            int size = ascending.size();
+            long start = invocation.<Long>getArgument(1);
+            long end = invocation.<Long>getArgument(2);
+            if (end < 0) {
+                end += size;
+            }
+            long removed = 0;
+            for (long i = Math.max(start, 0); i <= end && i < size; i++) {
+                sortedSet(invocation.getArgument(0)).remove(ascending.get((int) i));
+                removed++;
+            }
+            return removed;
+        });
+        when(zset.reverseRange(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            command();
+            List<String> descending = ranked(invocation.getArgument(0), true);
+            int to = (int) Math.min(descending.size(), invocation.<Long>getArgument(2) + 1);
+            return new LinkedHashSet<>(descending.subList(0, to));
+        });
+        when(zset.reverseRangeWithScores(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            command();
+            Map<String, Double> scores = sortedSet(invocation.getArgument(0));
+            List<String> descending = ranked(invocation.getArgument(0), true);
+            int to = (int) Math.min(descending.size(), invocation.<Long>getArgument(2) + 1);
+            Set<ZSetOperations.TypedTuple<String>> tuples = new LinkedHashSet<>();
+            descending.subList(0, to).forEach(value -> tuples.add(new DefaultTypedTuple<>(value, scores.get(value))));
+            return tuples;
+        });
+        return new StringRedisTemplate() {
+            @Override
+            public ValueOperations<String, String> opsForValue() {
+                return values;
+            }
+
+            @Override
+            public ZSetOperations<String, String> opsForZSet() {
+                return zset;
+            }
+
+            @Override
+            public Long convertAndSend(String channel, Object message) {
+                command();
+                published.add(String.valueOf(message));
+                return 1L;
+            }
+        };
+    }
+
+    private ConcurrentMap<String, Double> sortedSet(String key) {
+        return sortedSets.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+    }
+
+    private List<String> ranked(String key, boolean descending) {
+        Comparator<Map.Entry<String, Double>> byScore = Map.Entry.comparingByValue();
+        return sortedSet(key).entrySet().stream()
+                .sorted(descending ? byScore.reversed() : byScore)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private void command() {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (down) {
+            throw new RedisConnectionFailureException("Redis недоступен");
+        }
+    }
+
+    private final class RemoteCache implements Cache {
+        private final ConcurrentMapCache store;
+
+        RemoteCache(String name) {
+            this.store = new ConcurrentMapCache(name);
+        }
+
+        @Override
+        public String getName() {
+            return store.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            command();
+            return store.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            command();
+            return store.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            command();
+            return store.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            command();
+            store.put(key, value);
+            afterPut.run();
+        }
+
+        @Override
+        public void evict(Object key) {
+            command();
+            store.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            command();
+            store.clear();
+        }
+    }
+}
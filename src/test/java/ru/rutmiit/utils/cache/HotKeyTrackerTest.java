@@ -0,0 +1,63 @@
+package ru.rutmiit.utils.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotKeyTrackerTest {
+
+    private static final String CACHE = "company";
+
+    private FakeRedis redis;
+    private RedisCircuitBreaker breaker;
+    private HotKeyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        // Цепь размыкается после первого же сбоя и сразу готова к проверке
+        breaker = new RedisCircuitBreaker(redis.connectionFactory(), 1, Duration.ofSeconds(1), Duration.ZERO);
+        tracker = new HotKeyTracker(redis.stringRedisTemplate(), breaker, 2);
+    }
+
+    @Test
+    void flushRanksKeysAndKeepsOnlyRetained() {
+        record("a", 3);
+        record("b", 2);
+        record("c", 1);
+        tracker.flush();
+
+        assertEquals(List.of("a", "b"), tracker.topKeys(CACHE, 10));
+    }
+
+    @Test
+    void countsSurviveRedisOutage() {
+        record("a", 2);
+        redis.setDown(true);
+        tracker.flush();
+        assertTrue(breaker.isOpen());
+        assertEquals(List.of(), tracker.topKeys(CACHE, 10));
+
+        // Пока цепь разомкнута, сброс не обращается к Redis
+        record("a", 1);
+        tracker.flush();
+
+        redis.setDown(false);
+        breaker.probe();
+        tracker.flush();
+
+        List<HotKeyTracker.RankedKey> ranked = tracker.topKeysWithHits(CACHE, 10);
+        assertEquals(List.of(new HotKeyTracker.RankedKey("a", 3)), ranked);
+    }
+
+    private void record(String key, int hits) {
+        for (int i = 0; i < hits; i++) {
+            tracker.record(CACHE, key);
+        }
+    }
+}
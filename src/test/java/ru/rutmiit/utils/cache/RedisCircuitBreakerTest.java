@@ -0,0 +1,135 @@
+package ru.rutmiit.utils.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisCircuitBreakerTest {
+
+    private static final Duration SLOW_CALL = Duration.ofMillis(50);
+
+    private FakeRedis redis;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        // Нулевое время размыкания: проверка пингует Redis при первом же вызове probe()
+        breaker = new RedisCircuitBreaker(redis.connectionFactory(), 3, SLOW_CALL, Duration.ZERO);
+    }
+
+    @Test
+    void tripsAfterConsecutiveErrors() {
+        failingCall();
+        failingCall();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+
+        assertEquals("fallback", failingCall());
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void successResetsErrorCount() {
+        failingCall();
+        failingCall();
+        breaker.execute(() -> "ok", () -> "fallback");
+        failingCall();
+        failingCall();
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void tripsOnSlowCalls() {
+        for (int i = 0; i < 3; i++) {
+            // Медленный ответ сам по себе успешен, но считается сбоем
+            assertEquals("ok", breaker.execute(() -> sleepAndReturn(SLOW_CALL.multipliedBy(2)), () -> "fallback"));
+        }
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void skipsCallsWhileOpen() {
+        trip();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("fallback", breaker.execute(() -> {
+            calls.incrementAndGet();
+            return "ok";
+        }, () -> "fallback"));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void probeKeepsBreakerOpenWhileRedisIsDown() {
+        trip();
+        redis.setDown(true);
+
+        breaker.probe();
+
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    void probeKeepsBreakerOpenWhileRedisIsSlow() {
+        trip();
+        redis.setLatency(SLOW_CALL.multipliedBy(2));
+
+        breaker.probe();
+
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    void probeClosesBreakerAndRunsRecoveryListeners() {
+        AtomicInteger recoveries = new AtomicInteger();
+        breaker.onRecovery(recoveries::incrementAndGet);
+        trip();
+
+        breaker.probe();
+
+        assertFalse(breaker.isOpen());
+        assertEquals(1, recoveries.get());
+        assertEquals("ok", breaker.execute(() -> "ok", () -> "fallback"));
+    }
+
+    @Test
+    void probeDoesNothingWhileClosed() {
+        AtomicInteger recoveries = new AtomicInteger();
+        breaker.onRecovery(recoveries::incrementAndGet);
+
+        breaker.probe();
+
+        assertEquals(0, recoveries.get());
+    }
+
+    private String failingCall() {
+        return breaker.execute(() -> {
+            throw new RedisConnectionFailureException("Redis недоступен");
+        }, () -> "fallback");
+    }
+
+    private void trip() {
+        for (int i = 0; i < 3; i++) {
+            failingCall();
+        }
+        assertTrue(breaker.isOpen());
+    }
+
+    private static String sleepAndReturn(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return "ok";
+    }
+}
@@ -0,0 +1,81 @@
+package ru.rutmiit.utils.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class TwoLevelCacheTest {
+
+    private static final String CACHE = "companyDetails";
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(2);
+    private static final Duration LOADED_TTL = Duration.ofSeconds(30);
+
+    private FakeRedis redis;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(redis.connectionFactory(), 3, Duration.ofSeconds(1),
+                Duration.ZERO);
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(
+                redis.cacheManager(),
+                mock(StringRedisTemplate.class),
+                "cache-evictions",
+                100,
+                Duration.ofMinutes(5),
+                Duration.ofMinutes(1),
+                new CacheStatistics(new SimpleMeterRegistry(), 100),
+                new HotKeyTracker(mock(StringRedisTemplate.class), breaker, 10),
+                breaker,
+                10);
+        cache = (TwoLevelCache) manager.getCache(CACHE);
+    }
+
+    @Test
+    void loadedValueIsCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("A1", cache.get("a", () -> "A" + loads.incrementAndGet()));
+        assertEquals("A1", cache.get("a", () -> "A" + loads.incrementAndGet()));
+        assertEquals("A1", redis.stored(CACHE, "a"));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictionDuringRemoteWriteDropsLoadedValue() {
+        // Сообщение о сбросе с другого узла пришло, пока значение записывалось в Redis
+        redis.afterPut(() -> cache.evictLocal("a"));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("A1", cache.get("a", () -> "A" + loads.incrementAndGet()));
+        assertNull(redis.stored(CACHE, "a"));
+
+        redis.afterPut(() -> {
+        });
+        assertEquals("A2", cache.get("a", () -> "A" + loads.incrementAndGet()));
+        assertEquals("A2", redis.stored(CACHE, "a"));
+    }
+
+    @Test
+    void loadedValuesAreWrittenWithShortTtl() {
+        LoadedEntryTtl ttl = new LoadedEntryTtl(DEFAULT_TTL, LOADED_TTL);
+        AtomicReference<Duration> written = new AtomicReference<>();
+        redis.afterPut(() -> written.set(ttl.getTimeToLive("a", "A")));
+
+        cache.get("a", () -> "A");
+        assertEquals(LOADED_TTL, written.get());
+
+        cache.put("a", "B");
+        assertEquals(DEFAULT_TTL, written.get());
+    }
+}
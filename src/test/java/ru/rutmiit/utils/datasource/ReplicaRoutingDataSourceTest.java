@@ -0,0 +1,330 @@
+package ru.rutmiit.utils.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.ContextConsumer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.rutmiit.config.DataSourceConfig;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Маршрутизация на двух встроенных PostgreSQL: основной БД и её потоковой реплике.
+ * <p>
+ * Реплика создаётся из копии каталога остановленной основной БД, поэтому
+ * {@code pg_is_in_recovery()} показывает, куда ушёл запрос. Источники данных собирает
+ * {@link DataSourceConfig}, фоновая проверка реплик вызывается из тестов напрямую.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(1);
+    private static final Duration AWAIT = Duration.ofSeconds(30);
+
+    private static Path primaryDirectory;
+    private static Path replicaDirectory;
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+    private static int replicaPort;
+    private static String primaryConnInfo;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourceConfig.class, TestBeans.class)
+            .withPropertyValues(
+                    "spring.datasource.url=" + primary.getJdbcUrl("postgres", "postgres"),
+                    "spring.datasource.username=postgres",
+                    "app.datasource.replicas.urls=" + replica.getJdbcUrl("postgres", "postgres"),
+                    "app.datasource.replicas.max-lag=" + MAX_LAG,
+                    "app.datasource.read-your-writes.window=1m");
+
+    @BeforeAll
+    static void startServers() throws IOException {
+        primaryDirectory = Files.createTempDirectory("routing-primary");
+        replicaDirectory = Files.createTempDirectory("routing-replica");
+        // Каталог чисто остановленного сервера годится как базовая копия для реплики
+        primaryBuilder().start().close();
+        copyDirectory(primaryDirectory, replicaDirectory);
+        Files.createFile(replicaDirectory.resolve("standby.signal"));
+
+        primary = primaryBuilder().start();
+        primaryConnInfo = "host=localhost port=" + primary.getPort() + " user=postgres";
+        new JdbcTemplate(primary.getPostgresDatabase())
+                .execute("CREATE TABLE routing_probe (id serial PRIMARY KEY, note text)");
+
+        replica = replicaBuilder().start();
+        replicaPort = replica.getPort();
+        setPrimaryConnInfo(primaryConnInfo);
+        awaitStreaming();
+    }
+
+    @AfterAll
+    static void stopServers() throws IOException {
+        replica.close();
+        primary.close();
+        deleteDirectory(replicaDirectory);
+        deleteDirectory(primaryDirectory);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void wiresReplicaPoolsBehindLazyProxy() {
+        run(context -> {
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+            ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+            assertEquals(2, routing.getResolvedDataSources().size());
+            assertTrue(isReplicaHealthy(context));
+        });
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        run(context -> {
+            assertTrue(readsFromReplica(context));
+            assertFalse(inTransaction(context, false));
+
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            assertEquals(1.0, routedTo(meterRegistry, "replica-1"));
+            assertTrue(routedTo(meterRegistry, ReplicaRoutingDataSource.PRIMARY) >= 1.0);
+        });
+    }
+
+    @Test
+    void primaryReadsBypassReplica() {
+        run(context -> assertFalse(PrimaryReads.call(() -> inTransaction(context, true))));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsUnreachable() {
+        run(context -> {
+            replica.close();
+            try {
+                assertFalse(readsFromReplica(context));
+                assertFalse(isReplicaHealthy(context));
+                // Исключённая реплика больше не запрашивается
+                assertFalse(readsFromReplica(context));
+            } finally {
+                restartReplica();
+            }
+        });
+    }
+
+    @Test
+    void healthCheckDropsDeadReplicaAndBringsItBack() {
+        run(context -> {
+            ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+            replica.close();
+            try {
+                routing.checkReplicas();
+                assertFalse(isReplicaHealthy(context));
+                assertFalse(readsFromReplica(context));
+            } finally {
+                restartReplica();
+            }
+
+            awaitHealthy(context, routing);
+            assertTrue(readsFromReplica(context));
+        });
+    }
+
+    @Test
+    void healthCheckDropsLaggingReplicaAndBringsItBack() {
+        run(context -> {
+            ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+            JdbcTemplate replicaAdmin = new JdbcTemplate(replica.getPostgresDatabase());
+            replicaAdmin.execute("SELECT pg_wal_replay_pause()");
+            try {
+                new JdbcTemplate(primary.getPostgresDatabase())
+                        .update("INSERT INTO routing_probe (note) VALUES ('lag')");
+                await().atMost(AWAIT).until(() -> {
+                    routing.checkReplicas();
+                    return !isReplicaHealthy(context);
+                });
+                assertFalse(readsFromReplica(context));
+            } finally {
+                replicaAdmin.execute("SELECT pg_wal_replay_resume()");
+            }
+
+            awaitHealthy(context, routing);
+            assertTrue(readsFromReplica(context));
+        });
+    }
+
+    @Test
+    void healthCheckDropsReplicaWithoutStreaming() {
+        run(context -> {
+            ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+            // Без приёмника WAL полученное и применённое совпадают — отставание выглядело бы нулевым
+            setPrimaryConnInfo("");
+            try {
+                await().atMost(AWAIT).until(() -> {
+                    routing.checkReplicas();
+                    return !isReplicaHealthy(context);
+                });
+                assertFalse(readsFromReplica(context));
+            } finally {
+                setPrimaryConnInfo(primaryConnInfo);
+            }
+
+            awaitHealthy(context, routing);
+        });
+    }
+
+    @Test
+    void writerReadsFromPrimaryWithinReadYourWritesWindow() {
+        run(context -> {
+            authenticate("ivan");
+            assertTrue(readsFromReplica(context));
+
+            TransactionTemplate write = new TransactionTemplate(transactionManager(context));
+            write.executeWithoutResult(status -> new JdbcTemplate(context.getBean(DataSource.class))
+                    .update("INSERT INTO routing_probe (note) VALUES ('ivan')"));
+            assertFalse(readsFromReplica(context));
+
+            // Окно действует только для писавшего клиента
+            authenticate("anna");
+            assertTrue(readsFromReplica(context));
+        });
+    }
+
+    private void run(ContextConsumer<AssertableApplicationContext> test) {
+        contextRunner.run(test);
+    }
+
+    private static boolean readsFromReplica(AssertableApplicationContext context) {
+        return inTransaction(context, true);
+    }
+
+    /**
+     * Возвращает {@code pg_is_in_recovery()} соединения, выданного транзакции.
+     */
+    private static boolean inTransaction(AssertableApplicationContext context, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager(context));
+        transaction.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transaction.execute(status -> new JdbcTemplate(context.getBean(DataSource.class))
+                .queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private static DataSourceTransactionManager transactionManager(AssertableApplicationContext context) {
+        return new DataSourceTransactionManager(context.getBean(DataSource.class));
+    }
+
+    private static boolean isReplicaHealthy(AssertableApplicationContext context) {
+        return context.getBean(MeterRegistry.class).get("datasource.replica.healthy")
+                .tag("target", "replica-1").gauge().value() > 0;
+    }
+
+    private static double routedTo(MeterRegistry meterRegistry, String target) {
+        return meterRegistry.get("datasource.routing").tag("target", target).counter().count();
+    }
+
+    private static void awaitHealthy(AssertableApplicationContext context, ReplicaRoutingDataSource routing) {
+        await().atMost(AWAIT).until(() -> {
+            routing.checkReplicas();
+            return isReplicaHealthy(context);
+        });
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static EmbeddedPostgres.Builder primaryBuilder() {
+        return EmbeddedPostgres.builder()
+                .setDataDirectory(primaryDirectory)
+                .setCleanDataDirectory(false)
+                .setServerConfig("fsync", "off");
+    }
+
+    private static EmbeddedPostgres.Builder replicaBuilder() {
+        return EmbeddedPostgres.builder()
+                .setDataDirectory(replicaDirectory)
+                .setCleanDataDirectory(false)
+                .setServerConfig("fsync", "off");
+    }
+
+    private static void restartReplica() throws IOException {
+        replica = replicaBuilder().setPort(replicaPort).start();
+        awaitStreaming();
+    }
+
+    private static void setPrimaryConnInfo(String connInfo) {
+        JdbcTemplate replicaAdmin = new JdbcTemplate(replica.getPostgresDatabase());
+        replicaAdmin.execute("ALTER SYSTEM SET primary_conninfo = '" + connInfo + "'");
+        replicaAdmin.execute("SELECT pg_reload_conf()");
+    }
+
+    private static void awaitStreaming() {
+        JdbcTemplate replicaAdmin = new JdbcTemplate(replica.getPostgresDatabase());
+        await().atMost(AWAIT).until(() -> replicaAdmin.queryForList(
+                "SELECT status FROM pg_stat_wal_receiver", String.class).contains("streaming"));
+    }
+
+    private static void copyDirectory(Path source, Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : paths.toList()) {
+                Path copy = target.resolve(source.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(copy);
+                } else if (!path.getFileName().toString().equals("epg-lock")) {
+                    Files.copy(path, copy);
+                }
+            }
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class TestBeans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}